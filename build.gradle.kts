@@ -5,6 +5,7 @@ plugins {
 	id("org.springframework.boot") version "3.2.0"
 	id("io.spring.dependency-management") version "1.1.4"
 	id("com.google.cloud.tools.jib") version "3.4.0"
+	id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "com.reservation"
@@ -40,13 +41,25 @@ dependencies {
 	implementation ("org.springframework.integration:spring-integration-redis")
 	implementation ("io.lettuce:lettuce-core")
 
+	// for near cache
+	implementation("com.github.ben-manes.caffeine:caffeine")
+
+	// for the second-level entity cache
+	implementation("org.hibernate.orm:hibernate-jcache")
+	implementation("com.github.ben-manes.caffeine:jcache")
+
 	// swagger
 	implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:$springDocVersion")
 
 	// for mysql
+	implementation("org.flywaydb:flyway-core")
+	implementation("org.flywaydb:flyway-mysql")
 	developmentOnly("org.springframework.boot:spring-boot-devtools")
 	runtimeOnly("com.mysql:mysql-connector-j")
 
+	// for metrics
+	runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+
 	// lombok
 	compileOnly("org.projectlombok:lombok")
 	annotationProcessor("org.projectlombok:lombok")
@@ -54,6 +67,9 @@ dependencies {
 	// for testing
 	testImplementation("org.springframework.boot:spring-boot-starter-test")
 	testImplementation("com.h2database:h2")
+
+	// for micro-benchmarks
+	jmh("org.springframework:spring-test")
 }
 
 tasks.withType<Test> {
@@ -73,6 +89,15 @@ jib {
 
 }
 
+jmh {
+	warmupIterations.set(2)
+	iterations.set(5)
+	fork.set(1)
+	benchmarkMode.set(listOf("avgt"))
+	timeUnit.set("us")
+	resultFormat.set("JSON")
+}
+
 tasks.test{
 	testLogging {
 		events("passed", "skipped", "failed")
@@ -1,3 +1,5 @@
+-- Bootstraps the docker database. Later schema changes are Flyway migrations in src/main/resources/db/migration,
+-- applied on startup on top of this schema.
 create table if not exists campsite.availability
 (
     id              int auto_increment
@@ -28,7 +30,9 @@ create table if not exists campsite.reservation
     create_date    datetime     not null,
     update_date    datetime     null,
     cancel_date    datetime     null,
-    version        int          not null default 0
+    version        int          not null default 0,
+    index reservation_overlap_index (email, cancel_date, arrival_date, departure_date),
+    index reservation_arrival_index (arrival_date, id)
 ) comment 'Contains campsite reservations';
 
 
@@ -0,0 +1,138 @@
+package com.reservation.campsite.benchmark;
+
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.cache.AvailabilityCacheService;
+import com.reservation.campsite.services.reservation.AvailabilityService;
+import org.springframework.data.domain.Limit;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * Offline stand-ins for the MySQL and Redis backed collaborators used by the benchmarks.
+ */
+final class BenchmarkStubs {
+
+    private BenchmarkStubs() {
+    }
+
+    static List<AvailabilityDay> availabilities(LocalDate from, LocalDate to, int available) {
+        return from.datesUntil(to.plusDays(1))
+                .map(date -> new AvailabilityDay(date, date.getDayOfMonth() % 7 == 0 ? 0 : available, 0))
+                .toList();
+    }
+
+    static AvailabilityService availabilityService(List<AvailabilityDay> availabilities) {
+        return new AvailabilityService() {
+            @Override
+            public List<AvailabilityDay> findAvailability(LocalDate from, LocalDate to) {
+                return availabilities.stream()
+                        .filter(day -> !day.date().isBefore(from) && !day.date().isAfter(to))
+                        .toList();
+            }
+
+            @Override
+            public List<AvailabilityDay> findAvailability(LocalDate from, LocalDate to, int limit) {
+                return findAvailability(from, to).stream().limit(limit).toList();
+            }
+
+            @Override
+            public void updateAvailability(LocalDate arrivalDate, LocalDate departureDate, int plus) {
+                // the availabilities are left as they are so every invocation measures the same path
+            }
+
+            @Override
+            public void updateAvailability(Map<LocalDate, Integer> plusByDate) {
+                // the availabilities are left as they are so every invocation measures the same path
+            }
+        };
+    }
+
+    /**
+     * Answers the availability queries from {@code availabilities}; the updates match the same days without changing
+     * them, and every other repository method returns an empty result, so no benchmarked path can fail on a stub.
+     */
+    static AvailabilityRepository availabilityRepository(List<AvailabilityDay> availabilities) {
+        return (AvailabilityRepository) Proxy.newProxyInstance(
+                AvailabilityRepository.class.getClassLoader(),
+                new Class<?>[]{AvailabilityRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAvailabilityDaysBetween" -> between(availabilities, (LocalDate) args[0], (LocalDate) args[1])
+                            .limit(args.length > 2 && args[2] instanceof Limit limit && limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+                            .toList();
+                    case "findDatesBetween" -> between(availabilities, (LocalDate) args[0], (LocalDate) args[1])
+                            .map(AvailabilityDay::date)
+                            .toList();
+                    case "findAvailabilityDaysByDates" -> inDates(availabilities, (Collection<?>) args[0]).toList();
+                    case "incrementAvailability" -> (int) between(availabilities, (LocalDate) args[0], (LocalDate) args[1]).count();
+                    case "incrementAvailabilityByDates" -> (int) inDates(availabilities, (Collection<?>) args[0]).count();
+                    case "save" -> args[0];
+                    case "saveAll" -> args[0];
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "toString" -> "BenchmarkStubs.availabilityRepository";
+                    default -> emptyResult(method.getReturnType());
+                });
+    }
+
+    private static Stream<AvailabilityDay> between(List<AvailabilityDay> availabilities, LocalDate from, LocalDate to) {
+        return availabilities.stream().filter(day -> !day.date().isBefore(from) && !day.date().isAfter(to));
+    }
+
+    private static Stream<AvailabilityDay> inDates(List<AvailabilityDay> availabilities, Collection<?> dates) {
+        return availabilities.stream().filter(day -> dates.contains(day.date()));
+    }
+
+    private static Object emptyResult(Class<?> type) {
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == Optional.class) {
+            return Optional.empty();
+        }
+        if (type != Object.class && type.isAssignableFrom(List.class)) {
+            return List.of();
+        }
+        return null;
+    }
+
+    static AvailabilityCacheService availabilityCacheService(Map<LocalDate, Integer> cached) {
+        return new AvailabilityCacheService() {
+            @Override
+            public Map<LocalDate, Integer> getAll(List<LocalDate> dates) {
+                Map<LocalDate, Integer> result = HashMap.newHashMap(dates.size());
+                dates.forEach(date -> {
+                    Integer available = cached.get(date);
+                    if (available != null) {
+                        result.put(date, available);
+                    }
+                });
+                return result;
+            }
+
+            @Override
+            public void putAll(Map<LocalDate, Integer> availabilities) {
+                // misses are not stored so every invocation measures the same path
+            }
+
+            @Override
+            public void writeAll(Map<LocalDate, Integer> availabilities) {
+                // nothing is written after commit in the benchmarks
+            }
+
+            @Override
+            public void evictAll(Collection<LocalDate> dates) {
+                // nothing to evict
+            }
+        };
+    }
+}
@@ -0,0 +1,37 @@
+package com.reservation.campsite.benchmark;
+
+import com.reservation.campsite.controller.ControllerAdviseHandler;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.exception.NotFoundException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Error response building in {@link ControllerAdviseHandler}. The handler's own logging is disabled in the benchmark
+ * logback configuration so only the response construction is measured.
+ */
+@State(Scope.Benchmark)
+public class ControllerAdviseHandlerBenchmark {
+
+    private final ControllerAdviseHandler handler = new ControllerAdviseHandler();
+
+    private BusinessException businessException;
+
+    private Exception unexpectedException;
+
+    @Setup
+    public void setUp() {
+        businessException = NotFoundException.reservationIdNotFound(1L);
+        unexpectedException = new IllegalStateException("Unexpected");
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> handleBusinessException() {
+        return handler.handleException(businessException);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> handleUnexpectedException() {
+        return handler.handleException(unexpectedException);
+    }
+}
@@ -0,0 +1,77 @@
+package com.reservation.campsite.benchmark;
+
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.dto.response.ErrorResponseDTO;
+import com.reservation.campsite.dto.response.GeneralResponseDTO;
+import com.reservation.campsite.dto.response.ReservationDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.util.RangeDate;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private ReservationRequestDTO reservationRequestDTO;
+
+    private Reservation reservation;
+
+    private BusinessException exception;
+
+    private LocalDate from;
+
+    private LocalDate to;
+
+    @Setup
+    public void setUp() {
+        from = LocalDate.now().plusDays(1);
+        to = LocalDate.now().plusDays(3);
+        reservationRequestDTO = ReservationRequestDTO.builder()
+                .name("John Doe")
+                .email("john.doe@campsite.com")
+                .arrivalDate(from)
+                .departureDate(to)
+                .build();
+        reservation = Reservation.builder()
+                .id(1L)
+                .name("John Doe")
+                .email("john.doe@campsite.com")
+                .arrivalDate(from)
+                .departureDate(to)
+                .createdDate(Instant.now())
+                .build();
+        exception = BadRequestException.invalidEmail("john.doe@campsite");
+    }
+
+    @Benchmark
+    public Reservation toReservation() {
+        return mapper(reservationRequestDTO).toReservation();
+    }
+
+    @Benchmark
+    public ReservationDTO toReservationDTO() {
+        return mapper(reservation).toReservationDTO();
+    }
+
+    @Benchmark
+    public ErrorResponseDTO toErrorResponseDTO() {
+        return mapper(exception, HttpStatus.BAD_REQUEST).toErrorResponseDTO();
+    }
+
+    @Benchmark
+    public RangeDate<LocalDate> toDateRange() {
+        return mapper(from, to).toDateRange();
+    }
+
+    @Benchmark
+    public GeneralResponseDTO toGeneralResponseDTO() {
+        return mapper(HttpStatus.OK.name(), HttpStatus.OK.value(), "Reservation cancelled successfully").toGeneralResponseDTO();
+    }
+}
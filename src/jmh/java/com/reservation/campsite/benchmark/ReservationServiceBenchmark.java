@@ -0,0 +1,79 @@
+package com.reservation.campsite.benchmark;
+
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.AvailabilityIndex;
+import com.reservation.campsite.services.reservation.ReservationService;
+import com.reservation.campsite.services.reservation.ReservationServiceImpl;
+import com.reservation.campsite.services.validation.ValidateServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * {@link ReservationService#findAvailability} for the default 31 day range, served by the availability index, by a
+ * fully cached range and by a range that misses the cache and falls back to the database.
+ */
+@State(Scope.Benchmark)
+public class ReservationServiceBenchmark {
+
+    private static final int MAX_ADVANCE_DAYS = 31;
+
+    @Param({"INDEX", "CACHE_HIT", "CACHE_MISS"})
+    public String source;
+
+    private ReservationService reservationService;
+
+    private LocalDate arrivalDate;
+
+    private LocalDate departureDate;
+
+    @Setup
+    public void setUp() {
+        arrivalDate = LocalDate.now().plusDays(1);
+        departureDate = LocalDate.now().plusDays(MAX_ADVANCE_DAYS);
+        List<AvailabilityDay> availabilities = BenchmarkStubs.availabilities(LocalDate.now(), LocalDate.now().plusDays(2L * MAX_ADVANCE_DAYS), 10);
+
+        AvailabilityIndex availabilityIndex = new AvailabilityIndex(
+                BenchmarkStubs.availabilityRepository(availabilities), "INDEX".equals(source), MAX_ADVANCE_DAYS, MAX_ADVANCE_DAYS);
+        availabilityIndex.refresh();
+        if ("INDEX".equals(source) && availabilityIndex.findAvailability(arrivalDate, departureDate).isEmpty()) {
+            // a failed refresh is only logged, and the benchmark logging is off
+            throw new IllegalStateException("Availability index does not cover " + arrivalDate + " to " + departureDate);
+        }
+
+        Map<LocalDate, Integer> cached = "CACHE_HIT".equals(source)
+                ? availabilities.stream().collect(Collectors.toMap(AvailabilityDay::date, AvailabilityDay::available))
+                : Map.of();
+
+        ReservationServiceImpl service = new ReservationServiceImpl(
+                BenchmarkStubs.availabilityService(availabilities),
+                new ValidateServiceImpl(),
+                null,
+                new ConcurrentMapCacheManager(),
+                availabilityIndex,
+                BenchmarkStubs.availabilityCacheService(cached),
+                null,
+                null,
+                null,
+                Optional.empty(),
+                null,
+                new CampsiteMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(service, "maxAdvanceDays", MAX_ADVANCE_DAYS);
+        ReflectionTestUtils.setField(service, "minAheadArrivalDays", 1);
+        ReflectionTestUtils.setField(service, "maxAheadArrivalDays", MAX_ADVANCE_DAYS);
+        reservationService = service;
+    }
+
+    @Benchmark
+    public Map<LocalDate, Boolean> findAvailability() {
+        return reservationService.findAvailability(arrivalDate, departureDate);
+    }
+}
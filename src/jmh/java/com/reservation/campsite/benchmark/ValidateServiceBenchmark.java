@@ -0,0 +1,69 @@
+package com.reservation.campsite.benchmark;
+
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.services.validation.ValidateService;
+import com.reservation.campsite.services.validation.ValidateServiceImpl;
+import com.reservation.campsite.util.RangeDate;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+
+/**
+ * The validations return nothing, so every benchmark reads its inputs from the state and sinks them in the
+ * {@link Blackhole} once validated, which keeps the JIT from folding or dropping the checks.
+ */
+@State(Scope.Benchmark)
+public class ValidateServiceBenchmark {
+
+    private final ValidateService validateService = new ValidateServiceImpl();
+
+    private LocalDate arrivalDate;
+
+    private LocalDate departureDate;
+
+    private RangeDate<LocalDate> validArrivalDateRange;
+
+    private String validEmail;
+
+    private String invalidEmail;
+
+    @Setup
+    public void setUp() {
+        arrivalDate = LocalDate.now().plusDays(1);
+        departureDate = LocalDate.now().plusDays(3);
+        validArrivalDateRange = mapper(LocalDate.now().plusDays(1), LocalDate.now().plusDays(31)).toDateRange();
+        validEmail = "john.doe@campsite.com";
+        invalidEmail = "john.doe@campsite";
+    }
+
+    @Benchmark
+    public void validateStayRangeDays(Blackhole blackhole) {
+        validateService.validateStayRangeDays(arrivalDate, departureDate, 1, 3);
+        blackhole.consume(arrivalDate);
+        blackhole.consume(departureDate);
+    }
+
+    @Benchmark
+    public void validateArrivalDate(Blackhole blackhole) {
+        validateService.validateArrivalDate(arrivalDate, departureDate, validArrivalDateRange);
+        blackhole.consume(validArrivalDateRange);
+    }
+
+    @Benchmark
+    public void validateEmail(Blackhole blackhole) {
+        validateService.validateEmail(validEmail, "email");
+        blackhole.consume(validEmail);
+    }
+
+    @Benchmark
+    public void validateEmailInvalid(Blackhole blackhole) {
+        try {
+            validateService.validateEmail(invalidEmail, "email");
+        } catch (BusinessException e) {
+            blackhole.consume(e);
+        }
+    }
+}
@@ -5,7 +5,10 @@ import org.springframework.boot.autoconfigure.cache.RedisCacheManagerBuilderCust
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -34,4 +37,19 @@ public class CacheConfig {
         return builder -> builder.withCacheConfiguration(AVAILABILITY_RANGE_DATES_CACHE,
                 defaultCacheConfiguration().entryTtl(Duration.ofMinutes(availabilityRangeDatesTtlMinutes)));
     }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(
+            RedisConnectionFactory redisConnectionFactory,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled
+    ) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("redis-listener-");
+            taskExecutor.setVirtualThreads(true);
+            container.setTaskExecutor(taskExecutor);
+        }
+        return container;
+    }
 }
@@ -1,11 +1,13 @@
 package com.reservation.campsite.configuration;
 
+import io.lettuce.core.resource.ClientResources;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConfiguration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializer;
@@ -28,8 +30,12 @@ public class DistributedLockConfiguration {
     }
 
     @Bean
-    public RedisConnectionFactory redisConnectionFactory(RedisConfiguration redisConfiguration) {
-       return new LettuceConnectionFactory(redisConfiguration);
+    public RedisConnectionFactory redisConnectionFactory(RedisConfiguration redisConfiguration, ClientResources clientResources) {
+        // shared client resources carry the auto-configured Lettuce command latency metrics
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientResources(clientResources)
+                .build();
+        return new LettuceConnectionFactory(redisConfiguration, clientConfiguration);
     }
 
     @Bean
@@ -0,0 +1,48 @@
+package com.reservation.campsite.configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hibernate second-level cache regions, kept in process by Caffeine behind JCache.
+ * <p>
+ * Every application context gets its own JCache manager, so closing one context does not close the regions of another.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String RESERVATION_REGION = "reservation";
+
+    private static final String CACHE_MANAGER_URI_PREFIX = "campsite:entity-cache:";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            @Value("${cache.reservation.maxSize:10000}") long reservationMaxSize,
+            @Value("${cache.reservation.ttlMinutes:10}") long reservationTtlMinutes
+    ) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create(CACHE_MANAGER_URI_PREFIX + UUID.randomUUID()), getClass().getClassLoader());
+        CaffeineConfiguration<Object, Object> reservationRegion = new CaffeineConfiguration<>();
+        reservationRegion.setMaximumSize(OptionalLong.of(reservationMaxSize));
+        reservationRegion.setExpireAfterWrite(OptionalLong.of(TimeUnit.MINUTES.toNanos(reservationTtlMinutes)));
+        cacheManager.createCache(RESERVATION_REGION, reservationRegion);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernatePropertiesCustomizer(CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+}
@@ -0,0 +1,73 @@
+package com.reservation.campsite.configuration;
+
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Adds read replicas next to the primary data source when {@code campsite.datasource.replicas.enabled} is set.
+ * <p>
+ * The replicas share the credentials of the primary and are probed every
+ * {@code campsite.datasource.replicas.health-check-millis} for their replication lag. See
+ * {@link ReplicaRoutingDataSource} for how the connections are routed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "campsite.datasource.replicas.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    private static final String URLS_SEPARATOR = ",";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            HikariDataSource primaryDataSource,
+            DataSourceProperties dataSourceProperties,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.datasource.replicas.urls}") String urls,
+            @Value("${campsite.datasource.replicas.maximum-pool-size:10}") int maximumPoolSize,
+            @Value("${campsite.datasource.replicas.staleness-millis:2000}") long stalenessMillis,
+            @Value("${campsite.datasource.replicas.max-lag-seconds:5}") long maxLagSeconds
+    ) {
+        List<DataSource> replicas = new ArrayList<>();
+        List<String> replicaUrls = Arrays.stream(urls.split(URLS_SEPARATOR))
+                .map(String::trim)
+                .filter(url -> !url.isEmpty())
+                .toList();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrls.get(i))
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, stalenessMillis, maxLagSeconds, campsiteMetrics);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+}
@@ -0,0 +1,224 @@
+package com.reservation.campsite.configuration;
+
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Sends the connections of read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Any connection taken outside a read-only transaction goes to the primary, and a read-write transaction marks the
+ * time of the last local write when it commits. For a while after it ({@code stalenessMillis}) read-only transactions
+ * stay on the primary too, so a client reading right after booking sees its own write even if the replicas have not
+ * applied it yet, however long the booking waited for its locks. Replicas that lag more than the configured bound, or
+ * cannot be reached, are taken out of the rotation by {@link #checkReplicas()}; when none is left the reads fall back
+ * to the primary. Reads that must see every commit of the cluster run in {@link #onPrimary(Supplier)}.
+ * <p>
+ * The lookup key is resolved when the connection is actually fetched, so this data source has to be wrapped in a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for the
+ * connection before it publishes the read-only flag of the transaction.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private static final String REPLICA_PREFIX = "replica-";
+
+    private static final String[] REPLICA_STATUS_QUERIES = {"SHOW REPLICA STATUS", "SHOW SLAVE STATUS"};
+
+    private static final String[] LAG_COLUMNS = {"Seconds_Behind_Source", "Seconds_Behind_Master"};
+
+    private final List<Replica> replicas = new ArrayList<>();
+
+    private final long stalenessMillis;
+
+    private final long maxLagSeconds;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+
+    private final Object commitMarker = new Object();
+
+    private volatile long lastWriteMillis;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long stalenessMillis, long maxLagSeconds,
+                                    CampsiteMetrics campsiteMetrics) {
+        this.stalenessMillis = stalenessMillis;
+        this.maxLagSeconds = maxLagSeconds;
+        this.campsiteMetrics = campsiteMetrics;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = new Replica(REPLICA_PREFIX + i, replicas.get(i));
+            this.replicas.add(replica);
+            targets.put(replica.key, replica.dataSource);
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    /**
+     * Runs {@code supplier} with every connection it takes, read-only ones included, on the primary, without marking a
+     * write. The connection must be taken inside, so the supplier has to start its own transaction.
+     */
+    public static <T> T onPrimary(Supplier<T> supplier) {
+        Boolean previous = PINNED_TO_PRIMARY.get();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        try {
+            return supplier.get();
+        } finally {
+            if (previous == null) {
+                PINNED_TO_PRIMARY.remove();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (Boolean.TRUE.equals(PINNED_TO_PRIMARY.get())) {
+            campsiteMetrics.datasourceRouted(PRIMARY, "pinned");
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            markWriteOnCommit();
+            campsiteMetrics.datasourceRouted(PRIMARY, "write");
+            return PRIMARY;
+        }
+        if (System.currentTimeMillis() - lastWriteMillis < stalenessMillis) {
+            campsiteMetrics.datasourceRouted(PRIMARY, "recent-write");
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = next.getAndIncrement();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, size));
+            if (replica.healthy.get()) {
+                campsiteMetrics.datasourceRouted(replica.key, "read");
+                return replica.key;
+            }
+        }
+        campsiteMetrics.datasourceRouted(PRIMARY, "no-healthy-replica");
+        return PRIMARY;
+    }
+
+    /**
+     * Probes every replica and keeps in the rotation only the ones reachable and at most {@code maxLagSeconds} behind
+     * the primary. A server that reports no replication status is not a replica of anything and is taken as up to date.
+     */
+    @Scheduled(fixedDelayString = "${campsite.datasource.replicas.health-check-millis:5000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try {
+                Long lag = findLagSeconds(replica.dataSource);
+                healthy = lag != null && lag <= maxLagSeconds;
+                if (lag == null) {
+                    log.warn("Replica {} is not replicating", replica.key);
+                } else if (!healthy) {
+                    log.warn("Replica {} is lagging {} seconds behind the primary", replica.key, lag);
+                }
+            } catch (SQLException e) {
+                healthy = false;
+                log.warn("Replica {} is not reachable: {}", replica.key, e.getMessage());
+            }
+            if (replica.healthy.getAndSet(healthy) != healthy) {
+                log.info("Replica {} is {} the read rotation", replica.key, healthy ? "back in" : "out of");
+            }
+        }
+    }
+
+    /**
+     * Registers, once per read-write transaction, the update of the last write time when the transaction commits.
+     */
+    private void markWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(commitMarker)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(commitMarker, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteMillis = System.currentTimeMillis();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(commitMarker);
+            }
+        });
+    }
+
+    /**
+     * Marks {@code key} in or out of the read rotation.
+     */
+    void setHealthy(String key, boolean healthy) {
+        replicas.stream()
+                .filter(replica -> replica.key.equals(key))
+                .forEach(replica -> replica.healthy.set(healthy));
+    }
+
+    private Long findLagSeconds(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            SQLException lastError = null;
+            for (String query : REPLICA_STATUS_QUERIES) {
+                try (ResultSet resultSet = statement.executeQuery(query)) {
+                    if (!resultSet.next()) {
+                        return 0L;
+                    }
+                    return readLagSeconds(resultSet);
+                } catch (SQLException e) {
+                    lastError = e;
+                }
+            }
+            throw lastError;
+        }
+    }
+
+    private Long readLagSeconds(ResultSet resultSet) {
+        for (String column : LAG_COLUMNS) {
+            try {
+                long lag = resultSet.getLong(column);
+                return resultSet.wasNull() ? null : lag;
+            } catch (SQLException e) {
+                // the column was renamed in MySQL 8.0.22, try the older name
+            }
+        }
+        return null;
+    }
+
+    private static final class Replica {
+
+        private final String key;
+
+        private final DataSource dataSource;
+
+        private final AtomicBoolean healthy = new AtomicBoolean(true);
+
+        private Replica(String key, DataSource dataSource) {
+            this.key = key;
+            this.dataSource = dataSource;
+        }
+    }
+}
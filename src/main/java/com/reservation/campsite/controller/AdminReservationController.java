@@ -0,0 +1,141 @@
+package com.reservation.campsite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.dto.request.ExportFormat;
+import com.reservation.campsite.dto.response.ErrorResponseDTO;
+import com.reservation.campsite.dto.response.ReservationDTO;
+import com.reservation.campsite.dto.response.ReservationPageDTO;
+import com.reservation.campsite.services.reservation.ReservationListingService;
+import com.reservation.campsite.util.RangeDate;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Objects;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+
+/**
+ * Lists and exports the reservations, guest names and emails included. Only loaded when {@code campsite.admin.enabled}
+ * is set, behind the {@link AdminTokenFilter}.
+ */
+@RestController
+@RequestMapping("/admin/reservations")
+@ConditionalOnProperty(name = "campsite.admin.enabled", havingValue = "true")
+public class AdminReservationController {
+
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private static final String CSV_HEADER = "id,name,email,arrivalDate,departureDate,createdDate,updateDate,cancelDate\n";
+
+    private final ReservationListingService reservationListingService;
+
+    private final ObjectMapper objectMapper;
+
+    public AdminReservationController(ReservationListingService reservationListingService, ObjectMapper objectMapper) {
+        this.reservationListingService = reservationListingService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Operation(summary = "List reservations by arrival date",
+            description = "Returns a page of the reservations arriving between both dates, cancelled ones included, by arrival date and id. Pass the nextCursor of a page to get the following one; it is absent on the last page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "List reservations by arrival date",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ReservationPageDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+            @ApiResponse(responseCode = "401", description = "Invalid admin token", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping
+    public ResponseEntity<ReservationPageDTO> findArrivals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalTo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(
+                mapper(reservationListingService.findArrivals(arrivalFrom, arrivalTo, cursor, limit)).toReservationPageDTO());
+    }
+
+
+    @Operation(summary = "Export reservations by arrival date",
+            description = "Streams every reservation arriving between both dates, cancelled ones included, by arrival date and id, as CSV (default) or newline delimited JSON, while they are read from the database.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export reservations by arrival date"),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+            @ApiResponse(responseCode = "401", description = "Invalid admin token", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportArrivals(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalTo,
+            @RequestParam(defaultValue = "CSV") ExportFormat format
+    ) {
+        RangeDate<LocalDate> range = reservationListingService.getArrivalRange(arrivalFrom, arrivalTo);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+            }
+            reservationListingService.exportArrivals(range, reservation -> {
+                try {
+                    ReservationDTO dto = mapper(reservation).toReservationDTO();
+                    writer.write(format == ExportFormat.CSV ? toCsvLine(dto) : objectMapper.writeValueAsString(dto) + "\n");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        String extension = format.name().toLowerCase();
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? TEXT_CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("arrivals-" + range.getFrom() + "-" + range.getTo() + "." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static String toCsvLine(ReservationDTO dto) {
+        return String.join(",",
+                toCsvValue(dto.getId()),
+                toCsvValue(dto.getName()),
+                toCsvValue(dto.getEmail()),
+                toCsvValue(dto.getArrivalDate()),
+                toCsvValue(dto.getDepartureDate()),
+                toCsvValue(dto.getCreatedDate()),
+                toCsvValue(dto.getUpdateDate()),
+                toCsvValue(dto.getCancelDate())) + "\n";
+    }
+
+    /**
+     * Quotes values with separators, quotes or line breaks, and prefixes the ones a spreadsheet would take as a
+     * formula, since names and emails are typed in by guests.
+     */
+    private static String toCsvValue(Object value) {
+        String text = Objects.toString(value, "");
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.contains(",") || text.contains("\"") || text.contains("\n") || text.contains("\r")) {
+            return "\"" + text.replace("\"", "\"\"") + "\"";
+        }
+        return text;
+    }
+}
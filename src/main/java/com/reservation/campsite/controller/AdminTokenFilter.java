@@ -0,0 +1,81 @@
+package com.reservation.campsite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.exception.UnauthorizedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Guards the {@value #ADMIN_PATH} endpoints, which expose the names and emails of the guests, with a shared secret:
+ * requests whose {@value #ADMIN_TOKEN_HEADER} header does not match {@code campsite.admin.token} are answered with 401
+ * Unauthorized. Like those endpoints, it is only loaded when {@code campsite.admin.enabled} is set, and the application
+ * does not start with a token shorter than {@value #MIN_TOKEN_LENGTH} characters.
+ */
+@Component
+@ConditionalOnProperty(name = "campsite.admin.enabled", havingValue = "true")
+public class AdminTokenFilter extends OncePerRequestFilter {
+
+    public static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private static final String ADMIN_PATH = "/admin/";
+
+    private static final int MIN_TOKEN_LENGTH = 32;
+
+    private final byte[] token;
+
+    private final ControllerAdviseHandler controllerAdviseHandler;
+
+    private final ObjectMapper objectMapper;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public AdminTokenFilter(
+            @Value("${campsite.admin.token:}") String token,
+            ControllerAdviseHandler controllerAdviseHandler,
+            ObjectMapper objectMapper
+    ) {
+        if (token.length() < MIN_TOKEN_LENGTH) {
+            throw new IllegalStateException(String.format(
+                    "campsite.admin.token must contain at least %d characters when campsite.admin.enabled is set", MIN_TOKEN_LENGTH));
+        }
+        this.token = token.getBytes(StandardCharsets.UTF_8);
+        this.controllerAdviseHandler = controllerAdviseHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !urlPathHelper.getPathWithinApplication(request).startsWith(ADMIN_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String header = request.getHeader(ADMIN_TOKEN_HEADER);
+        if (header == null || !MessageDigest.isEqual(token, header.getBytes(StandardCharsets.UTF_8))) {
+            writeError(response, UnauthorizedException.invalidAdminToken(ADMIN_TOKEN_HEADER));
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void writeError(HttpServletResponse response, BusinessException e) throws IOException {
+        ResponseEntity<Object> responseEntity = controllerAdviseHandler.getResponseEntityByException(e);
+        response.setStatus(responseEntity.getStatusCode().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), responseEntity.getBody());
+    }
+}
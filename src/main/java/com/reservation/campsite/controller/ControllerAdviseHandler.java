@@ -21,7 +21,6 @@ import static com.reservation.campsite.mapper.Mapper.mapper;
 @Slf4j
 public class ControllerAdviseHandler extends ResponseEntityExceptionHandler {
 
-
     @ExceptionHandler(BusinessException.class)
     public ResponseEntity<Object> handleException(BusinessException e) {
         if (log.isDebugEnabled()) {
@@ -36,7 +35,7 @@ public class ControllerAdviseHandler extends ResponseEntityExceptionHandler {
         return getResponseEntityByException(ServerException.unexpectedError(e));
     }
 
-    private static ResponseEntity<Object> getResponseEntityByException(BusinessException e) {
+    ResponseEntity<Object> getResponseEntityByException(BusinessException e) {
         ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(e.getClass(), ResponseStatus.class);
         HttpStatus status = responseStatus != null ? responseStatus.value() : HttpStatus.INTERNAL_SERVER_ERROR;
         return ResponseEntity.status(status).body(Map.of(ParamName.RESPONSE_ERROR.getNameParam(), mapper(e, status).toErrorResponseDTO()));
@@ -0,0 +1,179 @@
+package com.reservation.campsite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.services.idempotency.IdempotencyService;
+import com.reservation.campsite.services.idempotency.IdempotentResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Makes the reservation create, update and cancel requests carrying an {@value #IDEMPOTENCY_KEY_HEADER} header
+ * idempotent: the response of the first request with a key, error responses included, is returned to every later
+ * request with the same method, path and key, flagged with the {@value #IDEMPOTENT_REPLAYED_HEADER} header. The
+ * SHA-256 of the request body is stored with the response, and a later request reusing the key with another body is
+ * answered with 422 Unprocessable Entity instead of the response of the first one. Requests without the header are not
+ * affected.
+ */
+@Component
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final String RESERVATIONS_PATH = "/reservations";
+
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of(HttpMethod.POST.name(), HttpMethod.PUT.name(), HttpMethod.DELETE.name());
+
+    private final IdempotencyService idempotencyService;
+
+    private final ControllerAdviseHandler controllerAdviseHandler;
+
+    private final ObjectMapper objectMapper;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public IdempotencyFilter(IdempotencyService idempotencyService, ControllerAdviseHandler controllerAdviseHandler, ObjectMapper objectMapper) {
+        this.idempotencyService = idempotencyService;
+        this.controllerAdviseHandler = controllerAdviseHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(IDEMPOTENCY_KEY_HEADER) == null
+                || !IDEMPOTENT_METHODS.contains(request.getMethod())
+                || !urlPathHelper.getPathWithinApplication(request).startsWith(RESERVATIONS_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            writeError(response, BadRequestException.invalidIdempotencyKey(MAX_KEY_LENGTH));
+            return;
+        }
+        String scopedKey = request.getMethod() + ":" + urlPathHelper.getPathWithinApplication(request) + ":" + key;
+        CachedBodyRequestWrapper requestWrapper = new CachedBodyRequestWrapper(request);
+        IdempotentResponse idempotentResponse;
+        try {
+            idempotentResponse = idempotencyService.execute(scopedKey, requestWrapper.fingerprint(), () -> {
+                ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+                filterChain.doFilter(requestWrapper, responseWrapper);
+                return new IdempotentResponse(responseWrapper.getStatus(), responseWrapper.getContentType(),
+                        responseWrapper.getContentAsByteArray(), false);
+            });
+        } catch (BusinessException e) {
+            writeError(response, e);
+            return;
+        } catch (IOException | ServletException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException(e);
+        }
+        write(response, idempotentResponse);
+    }
+
+    private void write(HttpServletResponse response, IdempotentResponse idempotentResponse) throws IOException {
+        if (response.isCommitted()) {
+            return;
+        }
+        response.setStatus(idempotentResponse.status());
+        if (idempotentResponse.contentType() != null) {
+            response.setContentType(idempotentResponse.contentType());
+        }
+        if (idempotentResponse.replayed()) {
+            response.setHeader(IDEMPOTENT_REPLAYED_HEADER, Boolean.TRUE.toString());
+        }
+        response.setContentLength(idempotentResponse.body().length);
+        response.getOutputStream().write(idempotentResponse.body());
+    }
+
+    private void writeError(HttpServletResponse response, BusinessException e) throws IOException {
+        ResponseEntity<Object> responseEntity = controllerAdviseHandler.getResponseEntityByException(e);
+        response.setStatus(responseEntity.getStatusCode().value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), responseEntity.getBody());
+    }
+
+    /**
+     * Reads the request body up front, so it can be fingerprinted before the request runs and still be read by the
+     * controller.
+     */
+    private static class CachedBodyRequestWrapper extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        CachedBodyRequestWrapper(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        String fingerprint() {
+            try {
+                return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream inputStream = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return inputStream.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return inputStream.read();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+    }
+}
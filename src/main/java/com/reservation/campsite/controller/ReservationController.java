@@ -1,22 +1,37 @@
 package com.reservation.campsite.controller;
 
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
 import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.dto.request.ReservationUpdateDTO;
 import com.reservation.campsite.dto.response.ErrorResponseDTO;
 import com.reservation.campsite.dto.response.GeneralResponseDTO;
+import com.reservation.campsite.dto.response.ReservationBatchResponseDTO;
 import com.reservation.campsite.dto.response.ReservationDTO;
+import com.reservation.campsite.services.events.AvailabilityEventService;
+import com.reservation.campsite.services.reservation.ReservationBatchResult;
+import com.reservation.campsite.services.reservation.ReservationBatchService;
 import com.reservation.campsite.services.reservation.ReservationService;
+import com.reservation.campsite.services.reservation.TaggedAvailability;
+import com.reservation.campsite.util.RangeDate;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 
 import static com.reservation.campsite.mapper.Mapper.mapper;
@@ -27,23 +42,126 @@ public class ReservationController {
 
     private final ReservationService reservationService;
 
+    private final ReservationBatchService reservationBatchService;
+
+    private final AvailabilityEventService availabilityEventService;
+
     private static final String CANCELLED_MSG = "Reservation cancelled successfully";
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService, ReservationBatchService reservationBatchService, AvailabilityEventService availabilityEventService) {
         this.reservationService = reservationService;
+        this.reservationBatchService = reservationBatchService;
+        this.availabilityEventService = availabilityEventService;
     }
 
-    @Operation(summary = "Search availability by arrival and departure dates")
+    @Operation(summary = "Search availability by arrival and departure dates",
+            description = "Returns an ETag when the range is served by the availability index; when the If-None-Match header matches it, nothing changed in the range and the response is an empty 304.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Search availability by arrival and departure dates"),
+            @ApiResponse(responseCode = "304", description = "Availability not modified since the given ETag"),
             @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
     })
     @GetMapping("/availability")
     public ResponseEntity<Map<LocalDate, Boolean>> getAvailability(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate,
+            WebRequest webRequest
+    ) {
+        TaggedAvailability availability = reservationService.findTaggedAvailability(arrivalDate, departureDate);
+        String eTag = availability.eTag();
+        if (eTag == null) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noCache())
+                    .body(availability.availability().get());
+        }
+        // checked before the body is built, so a matching If-None-Match never builds or serializes the map
+        if (webRequest.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(availability.availability().get());
+    }
+
+
+    @Operation(summary = "Stream availability by arrival and departure dates",
+            description = "Writes one JSON object per date as newline delimited JSON, in date order, while the range is read from the database page by page.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream availability by arrival and departure dates"),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping(value = "/availability/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAvailability(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate arrivalDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate departureDate
     ) {
-        return ResponseEntity.ok(reservationService.findAvailability(arrivalDate, departureDate));
+        RangeDate<LocalDate> range = reservationService.getAvailabilityRange(arrivalDate, departureDate);
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            boolean[] firstLine = {true};
+            reservationService.streamAvailability(range, (date, available) -> {
+                try {
+                    writer.write("{\"date\":\"" + date + "\",\"available\":" + available + "}\n");
+                    if (firstLine[0]) {
+                        writer.flush();
+                        firstLine[0] = false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+
+    @Operation(summary = "Subscribe to availability changes",
+            description = "Server-Sent Events stream of availability transitions. Each 'availability' event carries a JSON array of {date, available, remaining} for the dates whose remaining count changed; changes are coalesced per flush. Subscribe first, then fetch the calendar once.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Subscribe to availability changes"),
+            @ApiResponse(responseCode = "503", description = "Too many subscribers", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping(value = "/availability/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeAvailabilityEvents() {
+        return availabilityEventService.subscribe();
+    }
+
+
+    @Operation(summary = "Find a reservation by id")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Find a reservation by id",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ReservationDTO.class))}),
+            @ApiResponse(responseCode = "404", description = "Reservation not found by id", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping("/{reservationId}")
+    public ResponseEntity<ReservationDTO> findById(
+            @PathVariable Long reservationId
+    ) {
+        return ResponseEntity.ok(
+                mapper(reservationService.findReservation(reservationId)).toReservationDTO());
+    }
+
+
+    @Operation(summary = "Find the reservations of an email",
+            description = "Returns every reservation of the email, cancelled ones included, by arrival date.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Find the reservations of an email"),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @GetMapping
+    public ResponseEntity<List<ReservationDTO>> findByEmail(
+            @RequestParam String email
+    ) {
+        return ResponseEntity.ok(reservationService.findReservationsByEmail(email).stream()
+                .map(reservation -> mapper(reservation).toReservationDTO())
+                .toList());
     }
 
 
@@ -63,6 +181,25 @@ public class ReservationController {
     }
 
 
+    @Operation(summary = "Create a batch of reservations",
+            description = "Creates every reservation or none of them (ALL_OR_NOTHING, default), or only the valid ones (PARTIAL). Results are returned per item in request order.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Every reservation was created",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ReservationBatchResponseDTO.class))}),
+            @ApiResponse(responseCode = "207", description = "At least one reservation was not created",
+                    content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ReservationBatchResponseDTO.class))}),
+            @ApiResponse(responseCode = "400", description = "Bad request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDTO.class))}),
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<ReservationBatchResponseDTO> createBatch(
+            @RequestBody ReservationBatchRequestDTO reservationBatchRequestDTO
+    ) {
+        ReservationBatchResult result = reservationBatchService.create(reservationBatchRequestDTO);
+        return ResponseEntity.status(result.failedCount() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+                .body(mapper(result).toReservationBatchResponseDTO());
+    }
+
+
     @Operation(summary = "Update a reservation")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Update a reservation",
@@ -0,0 +1,12 @@
+package com.reservation.campsite.dto.request;
+
+public enum BatchMode {
+    /**
+     * Either every reservation of the batch is created or none is.
+     */
+    ALL_OR_NOTHING,
+    /**
+     * Valid reservations are created even when others in the batch fail.
+     */
+    PARTIAL
+}
@@ -0,0 +1,12 @@
+package com.reservation.campsite.dto.request;
+
+public enum ExportFormat {
+    /**
+     * Comma separated values with a header line.
+     */
+    CSV,
+    /**
+     * One JSON object per line.
+     */
+    NDJSON
+}
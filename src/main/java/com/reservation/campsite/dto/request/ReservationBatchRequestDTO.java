@@ -0,0 +1,19 @@
+package com.reservation.campsite.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationBatchRequestDTO {
+
+    @Builder.Default
+    private BatchMode mode = BatchMode.ALL_OR_NOTHING;
+    private List<ReservationRequestDTO> reservations;
+}
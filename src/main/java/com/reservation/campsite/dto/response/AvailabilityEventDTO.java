@@ -0,0 +1,19 @@
+package com.reservation.campsite.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AvailabilityEventDTO {
+
+    private LocalDate date;
+    private Boolean available;
+    private Integer remaining;
+}
@@ -0,0 +1,20 @@
+package com.reservation.campsite.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReservationBatchItemDTO {
+
+    private Integer index;
+    private Integer status;
+    private ReservationDTO reservation;
+    private ErrorResponseDTO error;
+}
@@ -0,0 +1,21 @@
+package com.reservation.campsite.dto.response;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationBatchResponseDTO {
+
+    private BatchMode mode;
+    private Integer created;
+    private Integer failed;
+    private List<ReservationBatchItemDTO> results;
+}
@@ -0,0 +1,18 @@
+package com.reservation.campsite.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationPageDTO {
+
+    private List<ReservationDTO> reservations;
+    private String nextCursor;
+}
@@ -69,4 +69,29 @@ public class BadRequestException extends BusinessException {
         ErrorCode code = ErrorCode.BAD_REQUEST_ALREADY_CANCELLED;
         return new BadRequestException(code, String.format("%s. Reservation with Id: %s was already cancelled. ", code.getMessageCode(), reservationId));
     }
+
+    public static BadRequestException batchTooLarge(int size, int maxSize) {
+        ErrorCode code = ErrorCode.BAD_REQUEST_BATCH_TOO_LARGE;
+        return new BadRequestException(code, String.format("%s. Batch must contain between 1 and %d reservations. Size: %d", code.getMessageCode(), maxSize, size));
+    }
+
+    public static BadRequestException batchAborted() {
+        ErrorCode code = ErrorCode.BAD_REQUEST_BATCH_ABORTED;
+        return new BadRequestException(code, String.format("%s. Another reservation of the batch failed", code.getMessageCode()));
+    }
+
+    public static BadRequestException invalidIdempotencyKey(int maxLength) {
+        ErrorCode code = ErrorCode.BAD_REQUEST_INVALID_IDEMPOTENCY_KEY;
+        return new BadRequestException(code, String.format("%s. Key must contain between 1 and %d characters", code.getMessageCode(), maxLength));
+    }
+
+    public static BadRequestException invalidCursor(String cursor) {
+        ErrorCode code = ErrorCode.BAD_REQUEST_INVALID_CURSOR;
+        return new BadRequestException(code, String.format("%s. Cursor: %s", code.getMessageCode(), cursor));
+    }
+
+    public static BadRequestException invalidPageSize(int size, int maxSize) {
+        ErrorCode code = ErrorCode.BAD_REQUEST_INVALID_PAGE_SIZE;
+        return new BadRequestException(code, String.format("%s. Page size must be between 1 and %d. Size: %d", code.getMessageCode(), maxSize, size));
+    }
 }
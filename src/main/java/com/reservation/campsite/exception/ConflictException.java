@@ -0,0 +1,18 @@
+package com.reservation.campsite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictException extends BusinessException {
+
+    private ConflictException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+
+    public static ConflictException concurrentModification(String operation, int attempts) {
+        ErrorCode errorCode = ErrorCode.CONFLICT_CONCURRENT_MODIFICATION;
+        return new ConflictException(errorCode,
+                String.format("%s. Operation: %s, attempts: %d. Please try again", errorCode.getMessageCode(), operation, attempts));
+    }
+}
@@ -12,7 +12,16 @@ public enum ErrorCode {
     NOT_FOUND_RESERVATION_ID( "Not found reservation id"),
     BAD_REQUEST_TO_HIGH_DEMAND( "To high demand"),
     BAD_REQUEST_UPDATE_CANCELLED_RESERVATION("Update cancelled reservation"),
-    BAD_REQUEST_ALREADY_CANCELLED( "Already cancelled");
+    BAD_REQUEST_ALREADY_CANCELLED( "Already cancelled"),
+    BAD_REQUEST_BATCH_TOO_LARGE("Batch too large"),
+    BAD_REQUEST_BATCH_ABORTED("Batch aborted"),
+    BAD_REQUEST_INVALID_IDEMPOTENCY_KEY("Invalid idempotency key"),
+    BAD_REQUEST_INVALID_CURSOR("Invalid cursor"),
+    BAD_REQUEST_INVALID_PAGE_SIZE("Invalid page size"),
+    CONFLICT_CONCURRENT_MODIFICATION("Concurrent modification"),
+    UNPROCESSABLE_ENTITY_IDEMPOTENCY_KEY_REUSED("Idempotency key reused"),
+    UNAUTHORIZED_INVALID_ADMIN_TOKEN("Invalid admin token"),
+    SERVICE_UNAVAILABLE_TOO_MANY_SUBSCRIBERS("Too many subscribers");
 
     private final String messageCode;
 
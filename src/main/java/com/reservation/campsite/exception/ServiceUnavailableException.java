@@ -0,0 +1,18 @@
+package com.reservation.campsite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ServiceUnavailableException extends BusinessException {
+
+    private ServiceUnavailableException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+
+    public static ServiceUnavailableException tooManySubscribers(int maxSubscribers) {
+        ErrorCode code = ErrorCode.SERVICE_UNAVAILABLE_TOO_MANY_SUBSCRIBERS;
+        return new ServiceUnavailableException(code,
+                String.format("%s. This node serves up to %d subscribers. Please try again later", code.getMessageCode(), maxSubscribers));
+    }
+}
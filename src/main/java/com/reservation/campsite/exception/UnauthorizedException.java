@@ -0,0 +1,18 @@
+package com.reservation.campsite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class UnauthorizedException extends BusinessException {
+
+    private UnauthorizedException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+
+    public static UnauthorizedException invalidAdminToken(String header) {
+        ErrorCode code = ErrorCode.UNAUTHORIZED_INVALID_ADMIN_TOKEN;
+        return new UnauthorizedException(code,
+                String.format("%s. Missing or invalid %s header", code.getMessageCode(), header));
+    }
+}
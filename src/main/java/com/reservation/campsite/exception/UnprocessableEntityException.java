@@ -0,0 +1,18 @@
+package com.reservation.campsite.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class UnprocessableEntityException extends BusinessException {
+
+    private UnprocessableEntityException(ErrorCode errorCode, String message) {
+        super(errorCode, message);
+    }
+
+    public static UnprocessableEntityException idempotencyKeyReused() {
+        ErrorCode code = ErrorCode.UNPROCESSABLE_ENTITY_IDEMPOTENCY_KEY_REUSED;
+        return new UnprocessableEntityException(code,
+                String.format("%s. The key was already used with a different request body", code.getMessageCode()));
+    }
+}
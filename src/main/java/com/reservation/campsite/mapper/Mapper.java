@@ -3,12 +3,19 @@ package com.reservation.campsite.mapper;
 import com.reservation.campsite.dto.response.ErrorResponseDTO;
 import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.dto.response.GeneralResponseDTO;
+import com.reservation.campsite.dto.response.ReservationBatchItemDTO;
+import com.reservation.campsite.dto.response.ReservationBatchResponseDTO;
 import com.reservation.campsite.dto.response.ReservationDTO;
+import com.reservation.campsite.dto.response.ReservationPageDTO;
 import com.reservation.campsite.exception.BusinessException;
 import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.services.reservation.ReservationBatchResult;
+import com.reservation.campsite.services.reservation.ReservationPage;
 import com.reservation.campsite.util.RangeDate;
 import lombok.experimental.UtilityClass;
+import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
 
 import java.time.Instant;
 import java.time.LocalDate;
@@ -52,6 +59,7 @@ public class Mapper {
                         .arrivalDate(reservation.getArrivalDate())
                         .departureDate(reservation.getDepartureDate())
                         .createdDate(reservation.getCreatedDate())
+                        .updateDate(reservation.getUpdateDate())
                         .cancelDate(reservation.getCancelDate())
                         .build();
        }
@@ -66,4 +74,42 @@ public class Mapper {
                       .build();
        }
 
+       public static ToReservationBatchResponseDTO mapper(ReservationBatchResult result) {
+              return () -> ReservationBatchResponseDTO
+                      .builder()
+                      .mode(result.mode())
+                      .created((int) result.createdCount())
+                      .failed((int) result.failedCount())
+                      .results(result.items().stream()
+                              .map(item -> item.isCreated()
+                                      ? ReservationBatchItemDTO.builder()
+                                      .index(item.index())
+                                      .status(HttpStatus.CREATED.value())
+                                      .reservation(mapper(item.reservation()).toReservationDTO())
+                                      .build()
+                                      : toReservationBatchItemDTO(item.index(), item.error()))
+                              .toList())
+                      .build();
+       }
+
+       public static ToReservationPageDTO mapper(ReservationPage page) {
+              return () -> ReservationPageDTO
+                      .builder()
+                      .reservations(page.reservations().stream()
+                              .map(reservation -> mapper(reservation).toReservationDTO())
+                              .toList())
+                      .nextCursor(page.nextCursor())
+                      .build();
+       }
+
+       private static ReservationBatchItemDTO toReservationBatchItemDTO(int index, BusinessException error) {
+              ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+              HttpStatus status = responseStatus != null ? responseStatus.value() : HttpStatus.INTERNAL_SERVER_ERROR;
+              return ReservationBatchItemDTO.builder()
+                      .index(index)
+                      .status(status.value())
+                      .error(mapper(error, status).toErrorResponseDTO())
+                      .build();
+       }
+
 }
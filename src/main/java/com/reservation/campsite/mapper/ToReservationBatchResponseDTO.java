@@ -0,0 +1,8 @@
+package com.reservation.campsite.mapper;
+
+import com.reservation.campsite.dto.response.ReservationBatchResponseDTO;
+
+@FunctionalInterface
+public interface ToReservationBatchResponseDTO {
+    ReservationBatchResponseDTO toReservationBatchResponseDTO();
+}
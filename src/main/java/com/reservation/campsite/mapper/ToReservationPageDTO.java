@@ -0,0 +1,8 @@
+package com.reservation.campsite.mapper;
+
+import com.reservation.campsite.dto.response.ReservationPageDTO;
+
+@FunctionalInterface
+public interface ToReservationPageDTO {
+    ReservationPageDTO toReservationPageDTO();
+}
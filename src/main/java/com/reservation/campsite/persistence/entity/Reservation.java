@@ -1,15 +1,24 @@
 package com.reservation.campsite.persistence.entity;
 
+import com.reservation.campsite.configuration.EntityCacheConfig;
+import com.reservation.campsite.persistence.id.SnowflakeId;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.Hibernate;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 
 @Entity
-@Table(name = "reservation")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESERVATION_REGION)
+@Table(name = "reservation", indexes = {
+        @Index(name = "reservation_overlap_index", columnList = "email, cancel_date, arrival_date, departure_date"),
+        @Index(name = "reservation_arrival_index", columnList = "arrival_date, id")
+})
 @Getter
 @Setter
 @ToString
@@ -19,7 +28,7 @@ import java.util.Objects;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SnowflakeId
     @Column(name = "id", nullable = false)
     private Long id;
     @Column(name = "name", nullable = false)
@@ -37,9 +46,9 @@ public class Reservation {
     @Column(name = "create_date", nullable = false)
     private Instant createdDate;
 
-    @Column(name = "update_date", nullable = false)
+    @Column(name = "update_date")
     private Instant updateDate;
-    @Column(name = "cancel_date", nullable = false)
+    @Column(name = "cancel_date")
     private Instant cancelDate;
 
     @Version
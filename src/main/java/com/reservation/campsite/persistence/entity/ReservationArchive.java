@@ -0,0 +1,66 @@
+package com.reservation.campsite.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.Hibernate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Reservation moved out of the {@code reservation} table once it is no longer needed by the booking paths. Keeps the
+ * id and every column of the original row.
+ */
+@Entity
+@Table(name = "reservation_archive")
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationArchive {
+
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+    @Column(name = "name", nullable = false)
+    private String name;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "arrival_date", nullable = false)
+    private LocalDate arrivalDate;
+
+    @Column(name = "departure_date", nullable = false)
+    private LocalDate departureDate;
+
+    @Column(name = "create_date", nullable = false)
+    private Instant createdDate;
+
+    @Column(name = "update_date")
+    private Instant updateDate;
+    @Column(name = "cancel_date")
+    private Instant cancelDate;
+
+    @Column(name = "version")
+    private Integer version;
+
+    @Column(name = "archive_date", nullable = false)
+    private Instant archivedDate;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) return false;
+        ReservationArchive that = (ReservationArchive) o;
+        return id != null && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+}
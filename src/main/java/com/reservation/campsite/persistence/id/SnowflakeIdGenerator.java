@@ -0,0 +1,32 @@
+package com.reservation.campsite.persistence.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.config.spi.StandardConverters;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+
+import java.lang.reflect.Member;
+
+/**
+ * Hibernate identifier generator for {@link SnowflakeId} ids. The node id is read from the
+ * {@value #NODE_ID_SETTING} Hibernate setting.
+ */
+public class SnowflakeIdGenerator implements IdentifierGenerator {
+
+    public static final String NODE_ID_SETTING = "campsite.id.node-id";
+
+    private final SnowflakeIdSequence sequence;
+
+    public SnowflakeIdGenerator(SnowflakeId config, Member member, CustomIdGeneratorCreationContext context) {
+        Integer nodeId = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(NODE_ID_SETTING, StandardConverters.INTEGER, -1);
+        this.sequence = SnowflakeIdSequence.forNode(nodeId);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        return sequence.nextId();
+    }
+}
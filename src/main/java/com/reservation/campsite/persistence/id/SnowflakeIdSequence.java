@@ -0,0 +1,76 @@
+package com.reservation.campsite.persistence.id;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-ordered 64-bit ids: 41 bits of milliseconds since {@link #EPOCH_MILLIS}, 10 bits of node id and 12 bits of
+ * per-millisecond sequence, so each node generates up to 4096 ids per millisecond without coordination and ids from
+ * different nodes never collide as long as their node ids differ.
+ * <p>
+ * Ids are strictly increasing per node: when the clock moves backwards, or the sequence of a millisecond is exhausted,
+ * the sequence keeps counting on the last used millisecond instead of waiting for the clock. There is one sequence per
+ * node id in the JVM, shared by every generator of that node.
+ * <p>
+ * The database does not check id uniqueness on its own: the primary key of the partitioned {@code reservation} table
+ * is (id, arrival_date), and MySQL does not allow a unique key without the partitioning column. Two instances running
+ * with the same node id can therefore store reservations with the same id, so the node id is required and must be
+ * distinct per instance; there is no fallback.
+ */
+public final class SnowflakeIdSequence {
+
+    public static final long EPOCH_MILLIS = 1704067200000L;
+
+    public static final int NODE_ID_BITS = 10;
+
+    public static final int SEQUENCE_BITS = 12;
+
+    public static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private static final Map<Integer, SnowflakeIdSequence> SEQUENCES = new ConcurrentHashMap<>();
+
+    private final long nodeBits;
+
+    private long lastMillis = -1;
+
+    private long sequence;
+
+    private SnowflakeIdSequence(int nodeId) {
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    /**
+     * Returns the sequence of {@code nodeId}. A negative node id means none was configured and is rejected, so an
+     * instance without one fails at startup instead of risking ids shared with another instance.
+     */
+    public static SnowflakeIdSequence forNode(int nodeId) {
+        if (nodeId < 0) {
+            throw new IllegalStateException("No node id configured. Set campsite.id.node-id (CAMPSITE_NODE_ID) to a value "
+                    + "between 0 and " + MAX_NODE_ID + ", distinct for every instance");
+        }
+        if (nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        return SEQUENCES.computeIfAbsent(nodeId, SnowflakeIdSequence::new);
+    }
+
+    public synchronized long nextId() {
+        long millis = Math.max(System.currentTimeMillis() - EPOCH_MILLIS, lastMillis);
+        if (millis == lastMillis) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                millis++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastMillis = millis;
+        return (millis << (NODE_ID_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,13 @@
+package com.reservation.campsite.persistence.projection;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only view of the remaining availability and version of one date, loaded without a managed {@code Availability} entity.
+ */
+public record AvailabilityDay(LocalDate date, int available, int version) {
+
+    public boolean hasAvailability() {
+        return available > 0;
+    }
+}
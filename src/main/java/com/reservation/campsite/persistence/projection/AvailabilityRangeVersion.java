@@ -0,0 +1,8 @@
+package com.reservation.campsite.persistence.projection;
+
+/**
+ * Number of availability rows of a date range and the sum of their versions. Versions only grow, so any update or
+ * insertion in the range changes the pair.
+ */
+public record AvailabilityRangeVersion(long count, long versionSum) {
+}
@@ -0,0 +1,13 @@
+package com.reservation.campsite.persistence.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface AvailabilityBatchRepository {
+
+    /**
+     * Inserts one availability row per date, all with {@code capacity} available, with a single JDBC batch that the
+     * MySQL driver rewrites into multi-row inserts. Fails on dates that already have a row.
+     */
+    void insertAll(List<LocalDate> dates, int capacity);
+}
@@ -0,0 +1,34 @@
+package com.reservation.campsite.persistence.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+
+class AvailabilityBatchRepositoryImpl implements AvailabilityBatchRepository {
+
+    private static final String INSERT_AVAILABILITY = "INSERT INTO availability (date, available, available_total, version) " +
+            "VALUES (:date, :capacity, :capacity, 0)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    AvailabilityBatchRepositoryImpl(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    @Override
+    public void insertAll(List<LocalDate> dates, int capacity) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        SqlParameterSource[] batchArgs = dates.stream()
+                .map(date -> new MapSqlParameterSource()
+                        .addValue("date", date)
+                        .addValue("capacity", capacity))
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_AVAILABILITY, batchArgs);
+    }
+}
@@ -1,13 +1,64 @@
 package com.reservation.campsite.persistence.repository;
 
 import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface AvailabilityRepository extends CrudRepository<Availability, Integer> {
+public interface AvailabilityRepository extends CrudRepository<Availability, Integer>, AvailabilityBatchRepository {
     List<Availability> findAvailabilitiesByDateBetweenOrderByDate(LocalDate from, LocalDate to);
+
+    /**
+     * Returns the dates of the range that have an availability row, reading only the unique date index.
+     */
+    @Query(value = "SELECT a.date FROM Availability a WHERE a.date BETWEEN ?1 AND ?2")
+    List<LocalDate> findDatesBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Reads the range in date order as values. Nothing is added to the persistence context, so there is no entity to
+     * hydrate, snapshot or dirty check.
+     */
+    @Query(value = "SELECT new com.reservation.campsite.persistence.projection.AvailabilityDay(a.date, a.available, COALESCE(a.version, 0)) " +
+            "FROM Availability a WHERE a.date BETWEEN ?1 AND ?2 ORDER BY a.date")
+    List<AvailabilityDay> findAvailabilityDaysBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Same as {@link #findAvailabilityDaysBetween(LocalDate, LocalDate)} reading at most {@code limit} days.
+     */
+    @Query(value = "SELECT new com.reservation.campsite.persistence.projection.AvailabilityDay(a.date, a.available, COALESCE(a.version, 0)) " +
+            "FROM Availability a WHERE a.date BETWEEN ?1 AND ?2 ORDER BY a.date")
+    List<AvailabilityDay> findAvailabilityDaysBetween(LocalDate from, LocalDate to, Limit limit);
+
+    /**
+     * Reads the remaining availability of the given dates as values, so the result reflects bulk updates of the current
+     * transaction even when the entities are already in the persistence context.
+     */
+    @Query(value = "SELECT new com.reservation.campsite.persistence.projection.AvailabilityDay(a.date, a.available, COALESCE(a.version, 0)) " +
+            "FROM Availability a WHERE a.date IN ?1")
+    List<AvailabilityDay> findAvailabilityDaysByDates(Collection<LocalDate> dates);
+
+    /**
+     * Adds {@code plus} to the availability of every date in the range in a single statement, skipping the dates where
+     * the result would be negative or exceed the total. Returns the number of updated dates.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE Availability a SET a.available = a.available + ?3, a.version = a.version + 1 " +
+            "WHERE a.date BETWEEN ?1 AND ?2 AND a.available + ?3 >= 0 AND a.available + ?3 <= a.availableTotal")
+    int incrementAvailability(LocalDate from, LocalDate to, int plus);
+
+    /**
+     * Same as {@link #incrementAvailability(LocalDate, LocalDate, int)} for an arbitrary set of dates.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE Availability a SET a.available = a.available + ?2, a.version = a.version + 1 " +
+            "WHERE a.date IN ?1 AND a.available + ?2 >= 0 AND a.available + ?2 <= a.availableTotal")
+    int incrementAvailabilityByDates(Collection<LocalDate> dates, int plus);
 }
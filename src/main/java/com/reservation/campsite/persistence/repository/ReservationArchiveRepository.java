@@ -0,0 +1,23 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.ReservationArchive;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ReservationArchiveRepository extends CrudRepository<ReservationArchive, Long> {
+
+    /**
+     * Copies the given reservations into the archive in a single statement, without loading them. Returns the number
+     * of archived rows.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO reservation_archive " +
+            "(id, name, email, arrival_date, departure_date, create_date, update_date, cancel_date, version, archive_date) " +
+            "SELECT id, name, email, arrival_date, departure_date, create_date, update_date, cancel_date, version, ?2 " +
+            "FROM reservation WHERE id IN ?1", nativeQuery = true)
+    int copyFromReservations(Collection<Long> ids, Instant archivedDate);
+}
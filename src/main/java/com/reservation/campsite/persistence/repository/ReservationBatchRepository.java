@@ -0,0 +1,14 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+
+import java.util.List;
+
+public interface ReservationBatchRepository {
+
+    /**
+     * Inserts every reservation with a single JDBC batch, bypassing the persistence context, and sets the ids generated
+     * for them on the given instances.
+     */
+    List<Reservation> insertAll(List<Reservation> reservations);
+}
@@ -0,0 +1,62 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.id.SnowflakeIdSequence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+class ReservationBatchRepositoryImpl implements ReservationBatchRepository {
+
+    private static final String INSERT_RESERVATION = "INSERT INTO reservation " +
+            "(id, name, email, arrival_date, departure_date, create_date, update_date, cancel_date, version) " +
+            "VALUES (:id, :name, :email, :arrivalDate, :departureDate, :createdDate, :updateDate, :cancelDate, :version)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private final SnowflakeIdSequence idSequence;
+
+    ReservationBatchRepositoryImpl(DataSource dataSource, @Value("${campsite.id.node-id:-1}") int nodeId) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.idSequence = SnowflakeIdSequence.forNode(nodeId);
+    }
+
+    @Override
+    public List<Reservation> insertAll(List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return reservations;
+        }
+        for (Reservation reservation : reservations) {
+            reservation.setId(idSequence.nextId());
+            reservation.setVersion(0);
+        }
+        SqlParameterSource[] batchArgs = reservations.stream()
+                .map(ReservationBatchRepositoryImpl::toParameters)
+                .toArray(SqlParameterSource[]::new);
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION, batchArgs);
+        return reservations;
+    }
+
+    private static SqlParameterSource toParameters(Reservation reservation) {
+        return new MapSqlParameterSource()
+                .addValue("id", reservation.getId())
+                .addValue("name", reservation.getName())
+                .addValue("email", reservation.getEmail())
+                .addValue("arrivalDate", reservation.getArrivalDate())
+                .addValue("departureDate", reservation.getDepartureDate())
+                .addValue("createdDate", toTimestamp(reservation.getCreatedDate()))
+                .addValue("updateDate", toTimestamp(reservation.getUpdateDate()))
+                .addValue("cancelDate", toTimestamp(reservation.getCancelDate()))
+                .addValue("version", 0);
+    }
+
+    private static Timestamp toTimestamp(Instant instant) {
+        return instant != null ? Timestamp.from(instant) : null;
+    }
+}
@@ -0,0 +1,16 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ReservationExportRepository {
+
+    /**
+     * Passes every reservation arriving between {@code arrivalFrom} and {@code arrivalTo} to {@code consumer}, in
+     * arrival date and id order, as the rows come from a forward-only cursor. The reservations are not managed and
+     * none is kept once the consumer returns, so memory use does not grow with the number of rows.
+     */
+    void streamArriving(LocalDate arrivalFrom, LocalDate arrivalTo, Consumer<Reservation> consumer);
+}
@@ -0,0 +1,57 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+/**
+ * Reads the reservations with plain JDBC so the rows are never held by a persistence context. With MySQL Connector/J
+ * a fetch size of {@link Integer#MIN_VALUE} on a forward-only, read-only statement streams the rows one by one instead
+ * of buffering the whole result; other drivers take a positive fetch size.
+ */
+class ReservationExportRepositoryImpl implements ReservationExportRepository {
+
+    private static final String SELECT_ARRIVING = "SELECT id, name, email, arrival_date, departure_date, create_date, update_date, cancel_date, version " +
+            "FROM reservation WHERE arrival_date BETWEEN ? AND ? ORDER BY arrival_date, id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    ReservationExportRepositoryImpl(DataSource dataSource, @Value("${campsite.reservation-export.fetch-size:-2147483648}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    @Override
+    public void streamArriving(LocalDate arrivalFrom, LocalDate arrivalTo, Consumer<Reservation> consumer) {
+        RowCallbackHandler handler = resultSet -> consumer.accept(toReservation(resultSet));
+        jdbcTemplate.query(SELECT_ARRIVING, handler, Date.valueOf(arrivalFrom), Date.valueOf(arrivalTo));
+    }
+
+    private static Reservation toReservation(ResultSet resultSet) throws SQLException {
+        return Reservation.builder()
+                .id(resultSet.getLong("id"))
+                .name(resultSet.getString("name"))
+                .email(resultSet.getString("email"))
+                .arrivalDate(resultSet.getDate("arrival_date").toLocalDate())
+                .departureDate(resultSet.getDate("departure_date").toLocalDate())
+                .createdDate(toInstant(resultSet.getTimestamp("create_date")))
+                .updateDate(toInstant(resultSet.getTimestamp("update_date")))
+                .cancelDate(toInstant(resultSet.getTimestamp("cancel_date")))
+                .version(resultSet.getInt("version"))
+                .build();
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant() : null;
+    }
+}
@@ -1,17 +1,69 @@
 package com.reservation.campsite.persistence.repository;
 
 import com.reservation.campsite.persistence.entity.Reservation;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
-public interface ReservationRepository extends CrudRepository<Reservation, Long> {
-    @Query(value = "SELECT r FROM Reservation r WHERE r.email = ?1 AND r.arrivalDate <= ?2 AND r.departureDate >= ?2 AND r.cancelDate IS NULL")
-    List<Reservation> findByEmailAndBetweenDateRangeNotCancelled(String email, LocalDate arrivalDate, LocalDate departureDate);
+public interface ReservationRepository extends CrudRepository<Reservation, Long>, ReservationBatchRepository, ReservationExportRepository {
+    /**
+     * Returns the active reservations of {@code email} whose stay shares at least one date with the given one. Served by
+     * {@code reservation_overlap_index}: equality on email and cancel date, range on arrival date. No stay overlapping
+     * the range arrives before {@code earliestArrivalDate}, the arrival date minus the maximum stay, which bounds the
+     * arrival date range so only the partitions around it are read.
+     */
+    @Query(value = "SELECT r FROM Reservation r WHERE r.email = ?1 AND r.cancelDate IS NULL AND r.arrivalDate BETWEEN ?4 AND ?3 AND r.departureDate >= ?2")
+    List<Reservation> findByEmailAndOverlappingDateRangeNotCancelled(String email, LocalDate arrivalDate, LocalDate departureDate, LocalDate earliestArrivalDate);
 
-    @Query(value = "SELECT r FROM Reservation r WHERE r.arrivalDate >= ?1 AND r.departureDate <= ?2")
-    List<Reservation> findReservationsByBetweenArrivalDateAndDepartureDate(LocalDate arrivalDate, LocalDate departureDate);
+    /**
+     * Returns every reservation of {@code email}, cancelled ones included, by arrival date. Served by the email prefix of
+     * {@code reservation_overlap_index}.
+     */
+    List<Reservation> findByEmailOrderByArrivalDate(String email);
+
+    /**
+     * Returns up to {@code limit} reservations arriving between {@code arrivalFrom} and {@code arrivalTo} that come
+     * after ({@code afterArrivalDate}, {@code afterId}) in arrival date and id order. Served by
+     * {@code reservation_arrival_index}, so every page costs the same however deep it is. The reservations are read-only
+     * and bypass the second-level cache, which is kept for the booking paths.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query(value = "SELECT r FROM Reservation r WHERE r.arrivalDate BETWEEN ?1 AND ?2 AND (r.arrivalDate > ?3 OR (r.arrivalDate = ?3 AND r.id > ?4)) ORDER BY r.arrivalDate, r.id")
+    List<Reservation> findArrivingAfter(LocalDate arrivalFrom, LocalDate arrivalTo, LocalDate afterArrivalDate, long afterId, Limit limit);
+
+    @Query(value = "SELECT r FROM Reservation r WHERE r.email IN ?1 AND r.cancelDate IS NULL AND r.arrivalDate BETWEEN ?4 AND ?3 AND r.departureDate >= ?2")
+    List<Reservation> findByEmailInAndOverlappingDateRangeNotCancelled(Collection<String> emails, LocalDate arrivalDate, LocalDate departureDate, LocalDate earliestArrivalDate);
+
+    /**
+     * Returns the ids of the reservations that departed before {@code departedBefore}, cancelled ones included, by
+     * arrival date and id. Served by {@code reservation_arrival_index}; since a stay departs after it arrives, the
+     * arrival date is bounded by {@code departedBefore} too, so the partitions of the booking window are not read.
+     */
+    @Query(value = "SELECT r.id FROM Reservation r WHERE r.arrivalDate < ?1 AND r.departureDate < ?1 ORDER BY r.arrivalDate, r.id")
+    List<Long> findDepartedIdsToArchive(LocalDate departedBefore, Limit limit);
+
+    /**
+     * Returns the ids of the reservations arriving from {@code arrivalFrom} and before {@code arrivalBefore} that were
+     * cancelled before {@code cancelledBefore}, by arrival date and id. Served by {@code reservation_arrival_index},
+     * reading only the partitions of the arrival range.
+     */
+    @Query(value = "SELECT r.id FROM Reservation r WHERE r.arrivalDate >= ?1 AND r.arrivalDate < ?2 AND r.cancelDate < ?3 ORDER BY r.arrivalDate, r.id")
+    List<Long> findCancelledIdsToArchive(LocalDate arrivalFrom, LocalDate arrivalBefore, Instant cancelledBefore, Limit limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM Reservation r WHERE r.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 
 }
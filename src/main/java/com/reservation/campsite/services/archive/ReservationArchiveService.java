@@ -0,0 +1,10 @@
+package com.reservation.campsite.services.archive;
+
+public interface ReservationArchiveService {
+
+    /**
+     * Moves the reservations no longer needed by the booking paths to the archive, in batches, and returns how many
+     * were moved.
+     */
+    int archive();
+}
@@ -0,0 +1,129 @@
+package com.reservation.campsite.services.archive;
+
+import com.reservation.campsite.persistence.repository.ReservationArchiveRepository;
+import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Moves reservations that departed, or were cancelled, more than the retention period ago from {@code reservation}
+ * to {@code reservation_archive}, so the hot table and its indexes only hold the reservations the booking paths can
+ * still read or change.
+ * <p>
+ * Departed reservations are selected by an arrival date before the retention date, and the reservations cancelled
+ * before their stay by an arrival date between the retention date and the end of the booking window, so both reads
+ * range over {@code reservation_arrival_index} and only the partitions they need. Each batch copies and deletes up to
+ * {@code batchSize} rows in its own short transaction, selected by id so the copy and the delete see the same rows; a
+ * run stops after {@code maxBatches} batches of each kind and continues on the next one. Reservations in the retention
+ * period are never moved, so no booking lock is needed, but every batch holds the archive lock so the nodes running
+ * the schedule at the same time never copy the same rows.
+ */
+@Service
+@Slf4j
+public class ReservationArchiveServiceImpl implements ReservationArchiveService {
+
+    private static final String LOCK_KEY = "reservation-archive";
+
+    private final ReservationRepository reservationRepository;
+
+    private final ReservationArchiveRepository reservationArchiveRepository;
+
+    private final LockService lockService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final int batchSize;
+
+    private final int maxBatches;
+
+    private final int retentionDays;
+
+    private final int maxAheadArrivalDays;
+
+    private final int lockTimeoutSeconds;
+
+    public ReservationArchiveServiceImpl(
+            ReservationRepository reservationRepository,
+            ReservationArchiveRepository reservationArchiveRepository,
+            LockService lockService,
+            PlatformTransactionManager transactionManager,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.archive.batch-size:1000}") int batchSize,
+            @Value("${campsite.archive.max-batches:100}") int maxBatches,
+            @Value("${campsite.archive.retention-days:30}") int retentionDays,
+            @Value("${campsite.max-ahead-arrival-days}") int maxAheadArrivalDays,
+            @Value("${campsite.lock.timeout-seconds:10}") int lockTimeoutSeconds
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.reservationArchiveRepository = reservationArchiveRepository;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.campsiteMetrics = campsiteMetrics;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatches = Math.max(1, maxBatches);
+        this.retentionDays = Math.max(0, retentionDays);
+        this.maxAheadArrivalDays = Math.max(0, maxAheadArrivalDays);
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @Scheduled(cron = "${campsite.archive.cron:0 30 3 * * *}")
+    public void scheduledArchive() {
+        try {
+            int archived = archive();
+            if (archived > 0) {
+                log.info("Archived {} reservations", archived);
+            }
+        } catch (Exception e) {
+            log.error("Error archiving reservations: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int archive() {
+        LocalDate departedBefore = LocalDate.now().minusDays(retentionDays);
+        LocalDate arrivalBefore = LocalDate.now().plusDays(maxAheadArrivalDays + 1L);
+        Instant cancelledBefore = Instant.now().minus(retentionDays, ChronoUnit.DAYS);
+        return archive(limit -> reservationRepository.findDepartedIdsToArchive(departedBefore, limit))
+                + archive(limit -> reservationRepository.findCancelledIdsToArchive(departedBefore, arrivalBefore, cancelledBefore, limit));
+    }
+
+    private int archive(Function<Limit, List<Long>> findIds) {
+        int archived = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int moved = Objects.requireNonNull(lockService.lock(LOCK_KEY,
+                    () -> transactionTemplate.execute(status -> archiveBatch(findIds)), lockTimeoutSeconds));
+            archived += moved;
+            if (moved < batchSize) {
+                break;
+            }
+        }
+        return archived;
+    }
+
+    private int archiveBatch(Function<Limit, List<Long>> findIds) {
+        List<Long> ids = findIds.apply(Limit.of(batchSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        reservationArchiveRepository.copyFromReservations(ids, Instant.now());
+        int deleted = reservationRepository.deleteAllByIdIn(ids);
+        campsiteMetrics.reservationsArchived(deleted);
+        return ids.size();
+    }
+}
@@ -0,0 +1,97 @@
+package com.reservation.campsite.services.archive;
+
+import com.reservation.campsite.services.lock.LockService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps one {@code reservation} partition per month from the current month to {@code monthsAhead} months ahead, so
+ * the booking queries, all bounded by arrival date, only read the partitions of the booking window.
+ * <p>
+ * New months are split off the {@code p_future} catch-all partition created by the partitioning migration, which only
+ * holds arrival dates beyond the last monthly partition and is therefore small. Runs on startup and daily under a
+ * lock, so the nodes starting together do not split the same month twice; does nothing when the table is not
+ * partitioned.
+ */
+@Component
+@ConditionalOnProperty(name = "campsite.reservation-partitions.enabled", havingValue = "true")
+@Slf4j
+public class ReservationPartitionMaintainer {
+
+    private static final String LOCK_KEY = "reservation-partitions";
+
+    private static final String HISTORY_PARTITION = "p_history";
+
+    private static final String FUTURE_PARTITION = "p_future";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final String FIND_PARTITIONS = "SELECT partition_name FROM information_schema.partitions " +
+            "WHERE table_schema = DATABASE() AND table_name = 'reservation' AND partition_name IS NOT NULL";
+
+    private static final String SPLIT_FUTURE_PARTITION = "ALTER TABLE reservation REORGANIZE PARTITION " + FUTURE_PARTITION +
+            " INTO (PARTITION %s VALUES LESS THAN ('%s'), PARTITION " + FUTURE_PARTITION + " VALUES LESS THAN (MAXVALUE))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final LockService lockService;
+
+    private final int monthsAhead;
+
+    private final int lockTimeoutSeconds;
+
+    public ReservationPartitionMaintainer(
+            JdbcTemplate jdbcTemplate,
+            LockService lockService,
+            @Value("${campsite.reservation-partitions.months-ahead:3}") int monthsAhead,
+            @Value("${campsite.lock.timeout-seconds:10}") int lockTimeoutSeconds
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lockService = lockService;
+        this.monthsAhead = Math.max(0, monthsAhead);
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${campsite.reservation-partitions.cron:0 0 3 * * *}")
+    public void maintain() {
+        try {
+            lockService.lock(LOCK_KEY, () -> {
+                addMonthlyPartitions(YearMonth.now());
+                return null;
+            }, lockTimeoutSeconds);
+        } catch (Exception e) {
+            log.error("Error adding reservation partitions: {}", e.getMessage());
+        }
+    }
+
+    public void addMonthlyPartitions(YearMonth currentMonth) {
+        List<String> partitions = jdbcTemplate.queryForList(FIND_PARTITIONS, String.class);
+        if (!partitions.contains(FUTURE_PARTITION)) {
+            log.warn("Table reservation has no {} partition, skipping partition maintenance", FUTURE_PARTITION);
+            return;
+        }
+        YearMonth next = partitions.stream()
+                .filter(name -> !HISTORY_PARTITION.equals(name) && !FUTURE_PARTITION.equals(name))
+                .map(name -> YearMonth.parse(name, PARTITION_NAME))
+                .max(Comparator.naturalOrder())
+                .map(month -> month.plusMonths(1))
+                .orElse(currentMonth);
+        for (YearMonth month = next; !month.isAfter(currentMonth.plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+            String name = month.format(PARTITION_NAME);
+            jdbcTemplate.execute(String.format(SPLIT_FUTURE_PARTITION, name, month.plusMonths(1).atDay(1)));
+            log.info("Added reservation partition {}", name);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.reservation.campsite.services.cache;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface AvailabilityCacheService {
+
+    /**
+     * Returns the remaining availability of the cached dates; dates that are not cached are absent from the result.
+     */
+    Map<LocalDate, Integer> getAll(List<LocalDate> dates);
+
+    /**
+     * Stores values loaded from the database, keeping any entry written meanwhile so a slow reader cannot overwrite a
+     * value written through after a commit.
+     */
+    void putAll(Map<LocalDate, Integer> availabilities);
+
+    /**
+     * Overwrites the entries with committed values and makes the other nodes drop their local copies.
+     */
+    void writeAll(Map<LocalDate, Integer> availabilities);
+
+    void evictAll(Collection<LocalDate> dates);
+}
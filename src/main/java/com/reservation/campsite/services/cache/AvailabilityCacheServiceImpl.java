@@ -0,0 +1,250 @@
+package com.reservation.campsite.services.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.reservation.campsite.configuration.CacheConfig;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier access to the {@link CacheConfig#AVAILABILITY_RANGE_DATES_CACHE} cache.
+ * <p>
+ * L1 is a size-bounded in-JVM cache with a short TTL; L2 is Redis, under the key prefix of the Spring
+ * {@code RedisCache}. Redis holds one packed string per month: byte {@code n} is the remaining availability of day
+ * {@code n + 1} plus one, saturated at 255, and 0 means not cached. A booking window range spans at most two months,
+ * so it is read with a single MGET of one or two keys and decoded locally, and each month is written with one script
+ * running BITFIELD SET. The cache costs one 31 byte value per month instead of a key and a JSON value per day.
+ * <p>
+ * Values loaded by readers are only stored when absent, while committed values written through overwrite them, so a
+ * reader that loaded a value before a commit cannot replace the newer one. A month key expires a fixed time after it
+ * is created, whatever is written to it later, which bounds how long a value changed outside the booking paths can be
+ * served. Writes and evictions are broadcast on a pub/sub channel so every node drops its L1 entries; the L1 TTL bounds
+ * how long a node can serve a stale value if a message is lost. Redis failures are logged and treated as misses so the
+ * caller falls back to the database.
+ */
+@Service
+@Slf4j
+public class AvailabilityCacheServiceImpl implements AvailabilityCacheService, MessageListener {
+
+    private static final String DATES_SEPARATOR = ",";
+
+    private static final String MONTH_KEY_SUFFIX = "month:";
+
+    private static final int NOT_CACHED = 0;
+
+    private static final int MAX_CACHED_REMAINING = 254;
+
+    private static final String OVERWRITE = "1";
+
+    private static final String IF_ABSENT = "0";
+
+    /**
+     * KEYS[1] is the month key; ARGV is the overwrite flag, the TTL in seconds and then pairs of day offset and value.
+     */
+    private static final RedisScript<Long> SET_DAYS_SCRIPT = RedisScript.of("""
+            local overwrite = ARGV[1] == '1'
+            for i = 3, #ARGV, 2 do
+                local offset = '#' .. ARGV[i]
+                if overwrite or redis.call('BITFIELD', KEYS[1], 'GET', 'u8', offset)[1] == 0 then
+                    redis.call('BITFIELD', KEYS[1], 'SET', 'u8', offset, ARGV[i + 1])
+                end
+            end
+            if redis.call('TTL', KEYS[1]) < 0 then
+                redis.call('EXPIRE', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final String keyPrefix;
+
+    private final String ttlSeconds;
+
+    private final String invalidationChannel;
+
+    private final Cache<LocalDate, Integer> localCache;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    public AvailabilityCacheServiceImpl(
+            StringRedisTemplate stringRedisTemplate,
+            RedisCacheConfiguration defaultCacheConfiguration,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${cache.availabilityRangeDates.ttlMinutes:1}") int availabilityRangeDatesTtlMinutes,
+            @Value("${cache.availabilityRangeDates.invalidationChannel:campsite:availabilityRangeDates:invalidation}") String invalidationChannel,
+            @Value("${cache.availabilityRangeDates.local.enabled:true}") boolean localCacheEnabled,
+            @Value("${cache.availabilityRangeDates.local.maxSize:1000}") long localCacheMaxSize,
+            @Value("${cache.availabilityRangeDates.local.ttlSeconds:5}") long localCacheTtlSeconds
+    ) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyPrefix = defaultCacheConfiguration.getKeyPrefixFor(CacheConfig.AVAILABILITY_RANGE_DATES_CACHE) + MONTH_KEY_SUFFIX;
+        this.ttlSeconds = String.valueOf(Duration.ofMinutes(availabilityRangeDatesTtlMinutes).toSeconds());
+        this.invalidationChannel = invalidationChannel;
+        this.localCache = localCacheEnabled
+                ? Caffeine.newBuilder()
+                .maximumSize(localCacheMaxSize)
+                .expireAfterWrite(Duration.ofSeconds(localCacheTtlSeconds))
+                .build()
+                : null;
+        this.campsiteMetrics = campsiteMetrics;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    @Override
+    public Map<LocalDate, Integer> getAll(List<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return Map.of();
+        }
+        Map<LocalDate, Integer> result = HashMap.newHashMap(dates.size());
+        if (localCache != null) {
+            result.putAll(localCache.getAllPresent(dates));
+            campsiteMetrics.cacheLocalHits(result.size());
+            if (result.size() == dates.size()) {
+                return result;
+            }
+        }
+
+        List<LocalDate> remoteDates = dates.stream().filter(date -> !result.containsKey(date)).toList();
+        Map<LocalDate, Integer> remote = getAllFromRedis(remoteDates);
+        campsiteMetrics.cacheRedisHits(remote.size());
+        campsiteMetrics.cacheMisses(remoteDates.size() - remote.size());
+        if (localCache != null) {
+            localCache.putAll(remote);
+        }
+        result.putAll(remote);
+        return result;
+    }
+
+    @Override
+    public void putAll(Map<LocalDate, Integer> availabilities) {
+        if (availabilities.isEmpty()) {
+            return;
+        }
+        if (localCache != null) {
+            availabilities.forEach(localCache.asMap()::putIfAbsent);
+        }
+        campsiteMetrics.cachePuts(availabilities.size());
+        setAll(availabilities, IF_ABSENT);
+    }
+
+    @Override
+    public void writeAll(Map<LocalDate, Integer> availabilities) {
+        if (availabilities.isEmpty()) {
+            return;
+        }
+        if (localCache != null) {
+            localCache.putAll(availabilities);
+        }
+        campsiteMetrics.cachePuts(availabilities.size());
+        setAll(availabilities, OVERWRITE);
+        publishInvalidation(availabilities.keySet());
+    }
+
+    @Override
+    public void evictAll(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        if (localCache != null) {
+            localCache.invalidateAll(dates);
+        }
+        campsiteMetrics.cacheEvictions(dates.size());
+        setAll(dates.stream().collect(Collectors.toMap(Function.identity(), date -> -1, (first, second) -> first)), OVERWRITE);
+        publishInvalidation(dates);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        if (localCache == null) {
+            return;
+        }
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        if (log.isDebugEnabled()) {
+            log.debug("Invalidating local availability range dates cache: {}", body);
+        }
+        localCache.invalidateAll(Arrays.stream(body.split(DATES_SEPARATOR))
+                .filter(date -> !date.isBlank())
+                .map(LocalDate::parse)
+                .toList());
+    }
+
+    private Map<LocalDate, Integer> getAllFromRedis(List<LocalDate> dates) {
+        List<YearMonth> months = dates.stream().map(YearMonth::from).distinct().toList();
+        byte[][] keys = months.stream().map(this::toKey).toArray(byte[][]::new);
+        try {
+            // raw bytes: the string serializer would decode the packed values as UTF-8
+            List<byte[]> values = stringRedisTemplate.execute(
+                    (RedisCallback<List<byte[]>>) connection -> connection.stringCommands().mGet(keys));
+            Map<YearMonth, byte[]> daysByMonth = HashMap.newHashMap(months.size());
+            for (int i = 0; values != null && i < months.size(); i++) {
+                if (values.get(i) != null) {
+                    daysByMonth.put(months.get(i), values.get(i));
+                }
+            }
+            Map<LocalDate, Integer> result = HashMap.newHashMap(dates.size());
+            for (LocalDate date : dates) {
+                byte[] days = daysByMonth.get(YearMonth.from(date));
+                int offset = date.getDayOfMonth() - 1;
+                int value = days != null && offset < days.length ? Byte.toUnsignedInt(days[offset]) : NOT_CACHED;
+                if (value != NOT_CACHED) {
+                    result.put(date, value - 1);
+                }
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("Error reading availability range dates cache: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Runs the script once per month. A negative availability stores {@link #NOT_CACHED}.
+     */
+    private void setAll(Map<LocalDate, Integer> availabilities, String mode) {
+        Map<YearMonth, List<String>> argsByMonth = new TreeMap<>();
+        availabilities.forEach((date, available) -> {
+            List<String> args = argsByMonth.computeIfAbsent(YearMonth.from(date), month -> new ArrayList<>(List.of(mode, ttlSeconds)));
+            args.add(String.valueOf(date.getDayOfMonth() - 1));
+            args.add(String.valueOf(available < 0 ? NOT_CACHED : Math.min(available, MAX_CACHED_REMAINING) + 1));
+        });
+        try {
+            argsByMonth.forEach((month, args) ->
+                    stringRedisTemplate.execute(SET_DAYS_SCRIPT, List.of(keyPrefix + month), args.toArray()));
+        } catch (Exception e) {
+            log.error("Error writing availability range dates cache: {}", e.getMessage());
+        }
+    }
+
+    private void publishInvalidation(Collection<LocalDate> dates) {
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel,
+                    dates.stream().map(LocalDate::toString).collect(Collectors.joining(DATES_SEPARATOR)));
+        } catch (Exception e) {
+            log.error("Error publishing availability range dates invalidation: {}", e.getMessage());
+        }
+    }
+
+    private byte[] toKey(YearMonth month) {
+        return (keyPrefix + month).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,10 @@
+package com.reservation.campsite.services.cache;
+
+public interface ReservationCacheService {
+
+    /**
+     * Evicts the reservation from the second-level cache of the other nodes once the current transaction commits, or
+     * right away when there is no transaction. The local cache is kept up to date by Hibernate.
+     */
+    void evictAfterCommit(Long reservationId);
+}
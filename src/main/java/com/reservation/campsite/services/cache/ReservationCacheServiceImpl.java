@@ -0,0 +1,88 @@
+package com.reservation.campsite.services.cache;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Keeps the reservation region of the second-level cache consistent across nodes.
+ * <p>
+ * Each update or cancellation publishes the reservation id on a Redis channel after commit, tagged with the id of the
+ * publishing node. Every other node evicts the entry, so its next read loads the committed row. The publishing node
+ * ignores its own message: Hibernate already wrote the new state to its cache.
+ */
+@Service
+@Slf4j
+public class ReservationCacheServiceImpl implements ReservationCacheService, MessageListener {
+
+    private static final String SEPARATOR = "/";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final String invalidationChannel;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public ReservationCacheServiceImpl(
+            EntityManagerFactory entityManagerFactory,
+            RedisConnectionFactory redisConnectionFactory,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            @Value("${cache.reservation.invalidationChannel:campsite:reservation:invalidation}") String invalidationChannel
+    ) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.stringRedisTemplate = new StringRedisTemplate(redisConnectionFactory);
+        this.invalidationChannel = invalidationChannel;
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    @Override
+    public void evictAfterCommit(Long reservationId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishInvalidation(reservationId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publishInvalidation(reservationId);
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.lastIndexOf(SEPARATOR);
+        if (separator < 0 || nodeId.equals(body.substring(0, separator))) {
+            return;
+        }
+        try {
+            entityManagerFactory.getCache().evict(Reservation.class, Long.valueOf(body.substring(separator + 1)));
+        } catch (Exception e) {
+            log.error("Error evicting reservation {} from the entity cache: {}", body, e.getMessage());
+        }
+    }
+
+    private void publishInvalidation(Long reservationId) {
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, nodeId + SEPARATOR + reservationId);
+        } catch (Exception e) {
+            log.error("Error publishing reservation {} cache invalidation: {}", reservationId, e.getMessage());
+        }
+    }
+}
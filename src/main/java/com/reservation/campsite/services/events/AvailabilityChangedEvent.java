@@ -0,0 +1,10 @@
+package com.reservation.campsite.services.events;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Published after a transaction that changed the availability of {@code dates} has committed.
+ */
+public record AvailabilityChangedEvent(Collection<LocalDate> dates) {
+}
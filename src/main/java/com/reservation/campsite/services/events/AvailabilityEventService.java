@@ -0,0 +1,19 @@
+package com.reservation.campsite.services.events;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+public interface AvailabilityEventService {
+
+    /**
+     * Registers a new subscriber that receives the availability transitions published from now on.
+     */
+    SseEmitter subscribe();
+
+    /**
+     * Marks the availability of {@code dates} as changed, to be published with the next flush.
+     */
+    void markChanged(Collection<LocalDate> dates);
+}
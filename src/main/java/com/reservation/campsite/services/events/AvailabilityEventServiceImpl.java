@@ -0,0 +1,226 @@
+package com.reservation.campsite.services.events;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.configuration.ReplicaRoutingDataSource;
+import com.reservation.campsite.dto.response.AvailabilityEventDTO;
+import com.reservation.campsite.exception.ServiceUnavailableException;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.AvailabilityService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes per-date availability transitions to Server-Sent Events subscribers.
+ * <p>
+ * Changed dates are collected from local commits and from the cache invalidation channel, so a subscriber connected
+ * to any node sees the bookings of every node. A scheduled flush drains them, reads the range once and publishes only
+ * the dates whose remaining count changed since the previous flush, so a burst of bookings on one date produces one
+ * event. The payload is serialized once per flush and written to the subscribers in chunks on the task executor; an
+ * idle subscriber holds no thread, only its connection. Subscribers that fail a write are dropped and expected to
+ * reconnect. Subscribers beyond {@code max-subscribers}, which can not exceed half of the server connections, are
+ * turned away as unavailable.
+ */
+@Service
+@Slf4j
+public class AvailabilityEventServiceImpl implements AvailabilityEventService, MessageListener {
+
+    public static final String EVENT_NAME = "availability";
+
+    private static final String HEARTBEAT_COMMENT = "heartbeat";
+
+    private static final String DATES_SEPARATOR = ",";
+
+    private final AvailabilityService availabilityService;
+
+    private final ObjectMapper objectMapper;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final TaskExecutor taskExecutor;
+
+    private final long timeoutMillis;
+
+    private final int maxSubscribers;
+
+    private final int fanOutChunkSize;
+
+    private final Set<SseEmitter> subscribers;
+
+    private final Set<LocalDate> changedDates = ConcurrentHashMap.newKeySet();
+
+    private final Map<LocalDate, Integer> publishedRemaining = new ConcurrentHashMap<>();
+
+    private final AtomicLong eventId = new AtomicLong();
+
+    public AvailabilityEventServiceImpl(
+            AvailabilityService availabilityService,
+            ObjectMapper objectMapper,
+            RedisMessageListenerContainer redisMessageListenerContainer,
+            CampsiteMetrics campsiteMetrics,
+            @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${cache.availabilityRangeDates.invalidationChannel:campsite:availabilityRangeDates:invalidation}") String invalidationChannel,
+            @Value("${campsite.availability-events.timeout-millis:1800000}") long timeoutMillis,
+            @Value("${campsite.availability-events.max-subscribers:2000}") int maxSubscribers,
+            @Value("${server.tomcat.max-connections:8192}") int maxConnections,
+            @Value("${campsite.availability-events.fan-out-chunk-size:256}") int fanOutChunkSize
+    ) {
+        if (maxSubscribers > maxConnections / 2) {
+            throw new IllegalStateException(String.format("campsite.availability-events.max-subscribers (%d) must be at most "
+                    + "half of server.tomcat.max-connections (%d), so subscribers can not starve the other requests", maxSubscribers, maxConnections));
+        }
+        this.availabilityService = availabilityService;
+        this.objectMapper = objectMapper;
+        this.campsiteMetrics = campsiteMetrics;
+        this.taskExecutor = taskExecutor;
+        this.timeoutMillis = timeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.fanOutChunkSize = Math.max(1, fanOutChunkSize);
+        this.subscribers = campsiteMetrics.availabilitySubscribers(ConcurrentHashMap.<SseEmitter>newKeySet());
+        redisMessageListenerContainer.addMessageListener(this, new ChannelTopic(invalidationChannel));
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw ServiceUnavailableException.tooManySubscribers(maxSubscribers);
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    @Override
+    public void markChanged(Collection<LocalDate> dates) {
+        changedDates.addAll(dates);
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        markChanged(event.dates());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        markChanged(Arrays.stream(body.split(DATES_SEPARATOR))
+                .filter(date -> !date.isBlank())
+                .map(LocalDate::parse)
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${campsite.availability-events.flush-millis:500}")
+    public void flush() {
+        try {
+            publishChanges();
+        } catch (Exception e) {
+            log.error("Error publishing availability events: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${campsite.availability-events.heartbeat-millis:15000}")
+    public void heartbeat() {
+        fanOut(() -> SseEmitter.event().comment(HEARTBEAT_COMMENT));
+    }
+
+    /**
+     * Drains the changed dates and publishes the transitions among them, returning the published events.
+     */
+    public List<AvailabilityEventDTO> publishChanges() {
+        if (changedDates.isEmpty()) {
+            return List.of();
+        }
+        List<LocalDate> dates = drainChangedDates();
+        if (subscribers.isEmpty()) {
+            publishedRemaining.clear();
+            return List.of();
+        }
+
+        LocalDate today = LocalDate.now();
+        publishedRemaining.keySet().removeIf(date -> date.isBefore(today));
+        // read on the primary: a lagging replica would publish stale counts and hide the change for good
+        Map<LocalDate, Integer> remainingByDate = ReplicaRoutingDataSource.onPrimary(
+                        () -> availabilityService.findAvailability(dates.get(0), dates.get(dates.size() - 1)))
+                .stream()
+                .collect(Collectors.toMap(AvailabilityDay::date, AvailabilityDay::available));
+        List<AvailabilityEventDTO> events = new ArrayList<>();
+        for (LocalDate date : dates) {
+            int remaining = remainingByDate.getOrDefault(date, 0);
+            if (date.isBefore(today) || Objects.equals(publishedRemaining.put(date, remaining), remaining)) {
+                continue;
+            }
+            events.add(AvailabilityEventDTO.builder()
+                    .date(date)
+                    .available(remaining > 0)
+                    .remaining(remaining)
+                    .build());
+        }
+        if (events.isEmpty()) {
+            return events;
+        }
+
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(events);
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing availability events: {}", e.getMessage());
+            return List.of();
+        }
+        String id = String.valueOf(eventId.incrementAndGet());
+        fanOut(() -> SseEmitter.event().id(id).name(EVENT_NAME).data(payload, MediaType.APPLICATION_JSON));
+        campsiteMetrics.availabilityEventsPublished(events.size());
+        return events;
+    }
+
+    private List<LocalDate> drainChangedDates() {
+        List<LocalDate> dates = new ArrayList<>(changedDates.size());
+        for (Iterator<LocalDate> iterator = changedDates.iterator(); iterator.hasNext(); ) {
+            dates.add(iterator.next());
+            iterator.remove();
+        }
+        Collections.sort(dates);
+        return dates;
+    }
+
+    private void fanOut(Supplier<SseEmitter.SseEventBuilder> event) {
+        List<SseEmitter> targets = List.copyOf(subscribers);
+        for (int from = 0; from < targets.size(); from += fanOutChunkSize) {
+            List<SseEmitter> chunk = targets.subList(from, Math.min(from + fanOutChunkSize, targets.size()));
+            taskExecutor.execute(() -> chunk.forEach(emitter -> send(emitter, event)));
+        }
+    }
+
+    private void send(SseEmitter emitter, Supplier<SseEmitter.SseEventBuilder> event) {
+        try {
+            emitter.send(event.get());
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping availability events subscriber: {}", e.getMessage());
+            subscribers.remove(emitter);
+            emitter.completeWithError(e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.reservation.campsite.services.idempotency;
+
+import java.util.concurrent.Callable;
+
+public interface IdempotencyService {
+
+    /**
+     * Runs {@code execution} once per {@code key}: a duplicate returns the stored response of the first execution, and
+     * a duplicate arriving while it is still running waits for it. A duplicate whose {@code fingerprint} differs from
+     * the one of the first execution is rejected with an
+     * {@link com.reservation.campsite.exception.UnprocessableEntityException}.
+     */
+    IdempotentResponse execute(String key, String fingerprint, Callable<IdempotentResponse> execution) throws Exception;
+}
@@ -0,0 +1,264 @@
+package com.reservation.campsite.services.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.UnprocessableEntityException;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Stores the response of the first execution of an idempotency key in Redis, so a retried request is answered from
+ * there on any node without reaching the database or taking the availability locks.
+ * <p>
+ * Executions are claimed with {@code SET NX} of an in-flight marker carrying a random token and the fingerprint of the
+ * request. The marker expires after a short TTL, so a claim left behind by a crashed node does not block the key
+ * forever, and is renewed every {@code renew-millis} while the execution runs, however long it waits on the locks.
+ * The response replaces the marker and the claim is released only while the marker still holds the token, so an
+ * execution whose claim expired never overwrites nor deletes the claim of another one. A duplicate on the same node
+ * waits on the running execution directly; a duplicate on another node polls the key until the response is stored. A
+ * duplicate with another fingerprint is rejected instead of being answered with the response of a different request.
+ * Client errors are stored like successes, since the same request would fail the same way; server errors and
+ * exceptions release the claim so the request can be retried. When Redis is unavailable only the duplicates on the
+ * same node are detected.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final String KEY_PREFIX = "campsite:idempotency:";
+
+    private static final long POLL_MILLIS = 50;
+
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScript.of("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3])
+                return 1
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RENEW_SCRIPT = RedisScript.of("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('pexpire', KEYS[1], ARGV[2])
+            end
+            return 0
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final Duration ttl;
+
+    private final Duration inFlightTtl;
+
+    private final long waitMillis;
+
+    private final ConcurrentMap<String, Execution> executions = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> claims = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(
+            StringRedisTemplate stringRedisTemplate,
+            ObjectMapper objectMapper,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.idempotency.ttl-minutes:1440}") long ttlMinutes,
+            @Value("${campsite.idempotency.in-flight-ttl-seconds:30}") long inFlightTtlSeconds,
+            @Value("${campsite.idempotency.renew-millis:10000}") long renewMillis,
+            @Value("${campsite.idempotency.wait-millis:10000}") long waitMillis
+    ) {
+        if (renewMillis <= 0 || renewMillis * 2 > Duration.ofSeconds(inFlightTtlSeconds).toMillis()) {
+            throw new IllegalStateException(String.format("campsite.idempotency.renew-millis (%d) must be positive and at "
+                    + "most half of campsite.idempotency.in-flight-ttl-seconds (%d)", renewMillis, inFlightTtlSeconds));
+        }
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+        this.campsiteMetrics = campsiteMetrics;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.inFlightTtl = Duration.ofSeconds(inFlightTtlSeconds);
+        this.waitMillis = waitMillis;
+    }
+
+    @Override
+    public IdempotentResponse execute(String key, String fingerprint, Callable<IdempotentResponse> execution) throws Exception {
+        String redisKey = KEY_PREFIX + key;
+        Execution local = new Execution(fingerprint, new CompletableFuture<>());
+        Execution running = executions.putIfAbsent(redisKey, local);
+        if (running != null) {
+            if (!running.fingerprint().equals(fingerprint)) {
+                throw UnprocessableEntityException.idempotencyKeyReused();
+            }
+            return replay(await(running.future()));
+        }
+        try {
+            IdempotentResponse response = executeOnce(redisKey, fingerprint, execution);
+            local.future().complete(response);
+            return response;
+        } catch (Exception e) {
+            local.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            executions.remove(redisKey, local);
+        }
+    }
+
+    /**
+     * Extends the in-flight markers of the executions running on this node that still hold their claim.
+     */
+    @Scheduled(fixedDelayString = "${campsite.idempotency.renew-millis:10000}")
+    public void renewClaims() {
+        claims.forEach((redisKey, claim) -> {
+            try {
+                stringRedisTemplate.execute(RENEW_SCRIPT, List.of(redisKey), claim, String.valueOf(inFlightTtl.toMillis()));
+            } catch (Exception e) {
+                log.error("Error renewing idempotency key {}: {}", redisKey, e.getMessage());
+            }
+        });
+    }
+
+    private IdempotentResponse executeOnce(String redisKey, String fingerprint, Callable<IdempotentResponse> execution) throws Exception {
+        StoredEntry marker = new StoredEntry(UUID.randomUUID().toString(), fingerprint, null);
+        String claim = objectMapper.writeValueAsString(marker);
+        long deadline = System.currentTimeMillis() + waitMillis;
+        while (true) {
+            Boolean claimed = claim(redisKey, claim);
+            if (claimed == null) {
+                return execution.call();
+            }
+            if (claimed) {
+                return executeAndStore(redisKey, marker, claim, execution);
+            }
+            String stored = get(redisKey);
+            if (stored != null) {
+                StoredEntry entry = objectMapper.readValue(stored, StoredEntry.class);
+                if (!entry.fingerprint().equals(fingerprint)) {
+                    throw UnprocessableEntityException.idempotencyKeyReused();
+                }
+                if (entry.response() != null) {
+                    return replay(entry.response());
+                }
+            }
+            if (System.currentTimeMillis() >= deadline) {
+                throw BadRequestException.lock();
+            }
+            Thread.sleep(POLL_MILLIS);
+        }
+    }
+
+    private IdempotentResponse executeAndStore(String redisKey, StoredEntry marker, String claim,
+                                               Callable<IdempotentResponse> execution) throws Exception {
+        IdempotentResponse response;
+        claims.put(redisKey, claim);
+        try {
+            response = execution.call();
+        } catch (Exception e) {
+            release(redisKey, claim);
+            throw e;
+        } finally {
+            claims.remove(redisKey, claim);
+        }
+        if (response.status() >= 500) {
+            release(redisKey, claim);
+        } else {
+            store(redisKey, claim, marker.withResponse(response));
+        }
+        return response;
+    }
+
+    private IdempotentResponse await(CompletableFuture<IdempotentResponse> running) throws Exception {
+        try {
+            return running.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw BadRequestException.lock();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private IdempotentResponse replay(IdempotentResponse response) {
+        campsiteMetrics.idempotentReplay();
+        return response.asReplay();
+    }
+
+    /**
+     * Returns {@code null} when Redis cannot be reached.
+     */
+    private Boolean claim(String redisKey, String claim) {
+        try {
+            return Boolean.TRUE.equals(stringRedisTemplate.opsForValue().setIfAbsent(redisKey, claim, inFlightTtl));
+        } catch (Exception e) {
+            log.error("Error claiming idempotency key {}: {}", redisKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private String get(String redisKey) {
+        try {
+            return stringRedisTemplate.opsForValue().get(redisKey);
+        } catch (Exception e) {
+            log.error("Error reading idempotency key {}: {}", redisKey, e.getMessage());
+            return null;
+        }
+    }
+
+    private void store(String redisKey, String claim, StoredEntry entry) {
+        try {
+            Long stored = stringRedisTemplate.execute(STORE_SCRIPT, List.of(redisKey), claim,
+                    objectMapper.writeValueAsString(entry), String.valueOf(ttl.toMillis()));
+            if (!Objects.equals(stored, 1L)) {
+                log.warn("Claim of idempotency key {} expired before its response was stored", redisKey);
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Error serializing response of idempotency key {}: {}", redisKey, e.getMessage());
+            release(redisKey, claim);
+        } catch (Exception e) {
+            log.error("Error storing response of idempotency key {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private void release(String redisKey, String claim) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), claim);
+        } catch (Exception e) {
+            log.error("Error releasing idempotency key {}: {}", redisKey, e.getMessage());
+        }
+    }
+
+    private record Execution(String fingerprint, CompletableFuture<IdempotentResponse> future) {
+    }
+
+    /**
+     * Value of an idempotency key: the in-flight marker of the claim {@code token} while {@code response} is
+     * {@code null}, the stored response afterwards.
+     */
+    record StoredEntry(String token, String fingerprint, IdempotentResponse response) {
+
+        StoredEntry withResponse(IdempotentResponse response) {
+            return new StoredEntry(token, fingerprint, response);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.reservation.campsite.services.idempotency;
+
+/**
+ * Response of a request executed under an idempotency key, as stored for its duplicates. {@code replayed} is set on
+ * the copies returned to the duplicates.
+ */
+public record IdempotentResponse(int status, String contentType, byte[] body, boolean replayed) {
+
+    public IdempotentResponse asReplay() {
+        return new IdempotentResponse(status, contentType, body, true);
+    }
+}
@@ -1,8 +1,11 @@
 package com.reservation.campsite.services.lock;
 
+import java.util.Collection;
 import java.util.function.Supplier;
 
 public interface LockService {
 
     <T> T lock(String key, Supplier<T> supplier, Integer timeout);
+
+    <T> T lock(Collection<String> keys, Supplier<T> supplier, Integer timeout);
 }
@@ -1,44 +1,97 @@
 package com.reservation.campsite.services.lock;
 
 import com.reservation.campsite.exception.BadRequestException;
-import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.integration.support.locks.LockRegistry;
 import org.springframework.stereotype.Component;
 
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 
+/**
+ * Distributed locks backed by the {@link LockRegistry}, with an in-JVM striped fast path.
+ * <p>
+ * Keys are always acquired in sorted order, local stripes first and registry locks second, so callers locking
+ * overlapping key sets can not deadlock. Threads of the same node contending for the same key queue on the local stripe
+ * instead of polling the registry, and only the stripe owner competes with other nodes.
+ */
 @Component
 @Slf4j
 public class LockServiceImpl implements LockService {
+
+    private static final int DEFAULT_TIMEOUT_SECONDS = 10;
+
     private final LockRegistry lockRegistry;
 
+    private final Lock[] stripes;
+
+    private final CampsiteMetrics campsiteMetrics;
 
-    public LockServiceImpl(LockRegistry lockRegistry) {
+
+    public LockServiceImpl(LockRegistry lockRegistry, @Value("${campsite.lock.stripes:64}") int stripes, CampsiteMetrics campsiteMetrics) {
         this.lockRegistry = lockRegistry;
+        this.campsiteMetrics = campsiteMetrics;
+        this.stripes = new Lock[Math.max(1, stripes)];
+        Arrays.setAll(this.stripes, i -> new ReentrantLock());
     }
 
     @Override
     public <T> T lock(String key, Supplier<T> supplier, Integer timeout) {
-        int toTime = timeout != null ? timeout : 10;
-        Lock lock = lockRegistry.obtain(key);
+        return lock(List.of(key), supplier, timeout);
+    }
+
+    @Override
+    public <T> T lock(Collection<String> keys, Supplier<T> supplier, Integer timeout) {
+        int toTime = timeout != null ? timeout : DEFAULT_TIMEOUT_SECONDS;
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(toTime);
+        SortedSet<String> sortedKeys = new TreeSet<>(keys);
+        Deque<Lock> acquired = new ArrayDeque<>();
         try {
-            if (lock.tryLock(toTime, TimeUnit.SECONDS)) {
-                return execute(supplier);
-            } else {
-                log.error("Lock not acquired for key: {}", key);
-                throw BadRequestException.lock();
+            for (int stripe : stripesOf(sortedKeys)) {
+                acquire(stripes[stripe], start, deadline, acquired, sortedKeys);
+            }
+            for (String key : sortedKeys) {
+                acquire(lockRegistry.obtain(key), start, deadline, acquired, key);
             }
-        } catch (BusinessException e) {
-            throw e;
+            campsiteMetrics.lockAcquired(System.nanoTime() - start);
+            return execute(supplier);
         } catch (InterruptedException e) {
             log.error(e.getMessage());
             Thread.currentThread().interrupt();
             throw BadRequestException.lock();
         } finally {
-            lock.unlock();
+            release(acquired);
+        }
+    }
+
+    private SortedSet<Integer> stripesOf(Collection<String> keys) {
+        SortedSet<Integer> stripeIndexes = new TreeSet<>();
+        keys.forEach(key -> stripeIndexes.add(Math.floorMod(key.hashCode(), stripes.length)));
+        return stripeIndexes;
+    }
+
+    private void acquire(Lock lock, long start, long deadline, Deque<Lock> acquired, Object key) throws InterruptedException {
+        if (!lock.tryLock(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+            log.error("Lock not acquired for key: {}", key);
+            campsiteMetrics.lockTimedOut(System.nanoTime() - start);
+            throw BadRequestException.lock();
+        }
+        acquired.push(lock);
+    }
+
+    private static void release(Deque<Lock> acquired) {
+        while (!acquired.isEmpty()) {
+            try {
+                acquired.pop().unlock();
+            } catch (Exception e) {
+                log.error("Error releasing lock: {}", e.getMessage());
+            }
         }
     }
 
@@ -0,0 +1,263 @@
+package com.reservation.campsite.services.metrics;
+
+import com.reservation.campsite.configuration.CacheConfig;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Application meters for the booking, cache and lock hot paths, exported through the actuator Prometheus endpoint.
+ * <p>
+ * Meters recorded on every request are registered once and kept in fields; the remaining ones are looked up in the
+ * registry, which returns the already registered meter for the same name and tags.
+ */
+@Component
+public class CampsiteMetrics {
+
+    public static final String RESERVATION_OPERATION = "campsite.reservation.operation";
+
+    public static final String RESERVATION_REJECTED = "campsite.reservation.rejected";
+
+    public static final String OPTIMISTIC_LOCK_CONFLICTS = "campsite.optimistic.lock.conflicts";
+
+    public static final String OPTIMISTIC_LOCK_RETRIES = "campsite.optimistic.lock.retries";
+
+    public static final String OPTIMISTIC_LOCK_EXHAUSTED = "campsite.optimistic.lock.exhausted";
+
+    public static final String BOOKING_PIPELINE_BATCH_SIZE = "campsite.booking.pipeline.batch.size";
+
+    public static final String RESERVATIONS_ARCHIVED = "campsite.reservation.archived";
+
+    public static final String AVAILABILITY_PROVISIONED = "campsite.availability.provisioned";
+
+    public static final String CACHE_GETS = "campsite.cache.gets";
+
+    public static final String CACHE_PUTS = "campsite.cache.puts";
+
+    public static final String CACHE_EVICTIONS = "campsite.cache.evictions";
+
+    public static final String LOCK_WAIT = "campsite.lock.wait";
+
+    public static final String LOCK_TIMEOUTS = "campsite.lock.timeouts";
+
+    public static final String AVAILABILITY_SUBSCRIBERS = "campsite.availability.subscribers";
+
+    public static final String AVAILABILITY_EVENTS = "campsite.availability.events";
+
+    public static final String IDEMPOTENT_REPLAYS = "campsite.idempotent.replays";
+
+    public static final String DATASOURCE_ROUTES = "campsite.datasource.routes";
+
+    public static final String VIRTUAL_THREAD_PINNED = "campsite.virtual.thread.pinned";
+
+    public static final String TIER_LOCAL = "local";
+
+    public static final String TIER_REDIS = "redis";
+
+    private static final String TAG_CACHE = "cache";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Counter localCacheHits;
+
+    private final Counter redisCacheHits;
+
+    private final Counter cacheMisses;
+
+    private final Counter cachePuts;
+
+    private final Counter cacheEvictions;
+
+    private final Timer lockAcquired;
+
+    private final Timer lockTimedOut;
+
+    private final Counter lockTimeouts;
+
+    private final Counter availabilityEvents;
+
+    private final Counter idempotentReplays;
+
+    private final ConcurrentMap<OperationOutcome, Timer> operationTimers = new ConcurrentHashMap<>();
+
+    public CampsiteMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.localCacheHits = cacheGets("hit", TIER_LOCAL);
+        this.redisCacheHits = cacheGets("hit", TIER_REDIS);
+        this.cacheMisses = cacheGets("miss", TIER_REDIS);
+        this.cachePuts = Counter.builder(CACHE_PUTS)
+                .description("Entries written to the availability cache")
+                .tag(TAG_CACHE, CacheConfig.AVAILABILITY_RANGE_DATES_CACHE)
+                .register(meterRegistry);
+        this.cacheEvictions = Counter.builder(CACHE_EVICTIONS)
+                .description("Entries evicted from the availability cache")
+                .tag(TAG_CACHE, CacheConfig.AVAILABILITY_RANGE_DATES_CACHE)
+                .register(meterRegistry);
+        this.lockAcquired = lockWait("acquired");
+        this.lockTimedOut = lockWait("timeout");
+        this.lockTimeouts = Counter.builder(LOCK_TIMEOUTS)
+                .description("Lock acquisitions that did not complete before the timeout")
+                .register(meterRegistry);
+        this.availabilityEvents = Counter.builder(AVAILABILITY_EVENTS)
+                .description("Availability transitions published to the event stream subscribers")
+                .register(meterRegistry);
+        this.idempotentReplays = Counter.builder(IDEMPOTENT_REPLAYS)
+                .description("Requests answered with the stored response of an earlier request with the same idempotency key")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code supplier} and records its latency under {@link #RESERVATION_OPERATION}, tagged with the operation
+     * name and whether it completed or threw. The timer of each operation and outcome is registered once and reused,
+     * so the hot paths do not go through the registry lookup on every call.
+     */
+    public <T> T recordOperation(String operation, Supplier<T> supplier) {
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = supplier.get();
+            outcome = "success";
+            return result;
+        } finally {
+            operationTimers.computeIfAbsent(new OperationOutcome(operation, outcome), this::operationTimer)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs a booking operation as {@link #recordOperation} does and, when it is rejected with a
+     * {@link BusinessException}, counts the rejection under {@link #RESERVATION_REJECTED}.
+     */
+    public <T> T recordBooking(String operation, Supplier<T> supplier) {
+        try {
+            return recordOperation(operation, supplier);
+        } catch (BusinessException e) {
+            rejected(operation, e.getErrorCode());
+            throw e;
+        }
+    }
+
+    public void cacheLocalHits(int count) {
+        localCacheHits.increment(count);
+    }
+
+    public void cacheRedisHits(int count) {
+        redisCacheHits.increment(count);
+    }
+
+    public void cacheMisses(int count) {
+        cacheMisses.increment(count);
+    }
+
+    public void cachePuts(int count) {
+        cachePuts.increment(count);
+    }
+
+    public void cacheEvictions(int count) {
+        cacheEvictions.increment(count);
+    }
+
+    public void lockAcquired(long waitNanos) {
+        lockAcquired.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void lockTimedOut(long waitNanos) {
+        lockTimedOut.record(waitNanos, TimeUnit.NANOSECONDS);
+        lockTimeouts.increment();
+    }
+
+    public void optimisticLockConflict(String operation) {
+        meterRegistry.counter(OPTIMISTIC_LOCK_CONFLICTS, "operation", operation).increment();
+    }
+
+    public void optimisticLockRetry(String operation, int attempt) {
+        meterRegistry.counter(OPTIMISTIC_LOCK_RETRIES, "operation", operation, "attempt", String.valueOf(attempt)).increment();
+    }
+
+    public void optimisticLockExhausted(String operation) {
+        meterRegistry.counter(OPTIMISTIC_LOCK_EXHAUSTED, "operation", operation).increment();
+    }
+
+    public void bookingBatchCommitted(int size) {
+        meterRegistry.summary(BOOKING_PIPELINE_BATCH_SIZE).record(size);
+    }
+
+    public void reservationsArchived(int count) {
+        meterRegistry.counter(RESERVATIONS_ARCHIVED).increment(count);
+    }
+
+    public void availabilityProvisioned(int count) {
+        meterRegistry.counter(AVAILABILITY_PROVISIONED).increment(count);
+    }
+
+    public void rejected(String operation, ErrorCode errorCode) {
+        meterRegistry.counter(RESERVATION_REJECTED, "operation", operation, "code", errorCode.name()).increment();
+    }
+
+    /**
+     * Gauges the size of {@code subscribers} under {@link #AVAILABILITY_SUBSCRIBERS} and returns it.
+     */
+    public <T extends Collection<?>> T availabilitySubscribers(T subscribers) {
+        return meterRegistry.gaugeCollectionSize(AVAILABILITY_SUBSCRIBERS, Tags.empty(), subscribers);
+    }
+
+    public void availabilityEventsPublished(int count) {
+        availabilityEvents.increment(count);
+    }
+
+    public void idempotentReplay() {
+        idempotentReplays.increment();
+    }
+
+    public void datasourceRouted(String target, String reason) {
+        meterRegistry.counter(DATASOURCE_ROUTES, "target", target, "reason", reason).increment();
+    }
+
+    public void virtualThreadPinned(String frame, Duration duration) {
+        Timer.builder(VIRTUAL_THREAD_PINNED)
+                .description("Virtual threads pinned to their carrier thread by innermost application frame")
+                .tag("frame", frame)
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    private Counter cacheGets(String result, String tier) {
+        return Counter.builder(CACHE_GETS)
+                .description("Availability cache lookups by result and tier")
+                .tag(TAG_CACHE, CacheConfig.AVAILABILITY_RANGE_DATES_CACHE)
+                .tag("result", result)
+                .tag("tier", tier)
+                .register(meterRegistry);
+    }
+
+    private Timer lockWait(String result) {
+        return Timer.builder(LOCK_WAIT)
+                .description("Time spent acquiring the local and distributed locks of an operation")
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer operationTimer(OperationOutcome key) {
+        return Timer.builder(RESERVATION_OPERATION)
+                .description("Latency of reservation service operations")
+                .tag("operation", key.operation())
+                .tag("outcome", key.outcome())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private record OperationOutcome(String operation, String outcome) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.reservation.campsite.services.metrics;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, e.g. while blocking inside a {@code synchronized} block of a
+ * driver or of the lock registry.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event in-process. Every pinning longer than the threshold is
+ * logged with its stack trace and recorded under {@link CampsiteMetrics#VIRTUAL_THREAD_PINNED}, tagged with the
+ * innermost application frame so the offending code path can be found from the dashboard.
+ */
+@Component
+@ConditionalOnProperty(name = {"spring.threads.virtual.enabled", "campsite.virtual-threads.pinning-monitor.enabled"}, havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String VIRTUAL_THREAD_PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private static final String APPLICATION_PACKAGE = "com.reservation.campsite.";
+
+    private static final String UNKNOWN_FRAME = "unknown";
+
+    private static final int MAX_LOGGED_FRAMES = 15;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final Duration threshold;
+
+    private volatile RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.virtual-threads.pinning-monitor.threshold-millis:20}") long thresholdMillis
+    ) {
+        this.campsiteMetrics = campsiteMetrics;
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @Override
+    public void start() {
+        if (recordingStream != null) {
+            return;
+        }
+        try {
+            RecordingStream stream = new RecordingStream();
+            stream.enable(VIRTUAL_THREAD_PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            stream.onEvent(VIRTUAL_THREAD_PINNED_EVENT, this::onPinned);
+            stream.startAsync();
+            recordingStream = stream;
+            log.info("Virtual thread pinning monitor started with threshold {} ms", threshold.toMillis());
+        } catch (Exception e) {
+            log.error("Error starting virtual thread pinning monitor: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace != null ? stackTrace.getFrames() : List.of();
+        String applicationFrame = frames.stream()
+                .map(VirtualThreadPinningMonitor::toFrameName)
+                .filter(frame -> frame.startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .orElse(UNKNOWN_FRAME);
+
+        campsiteMetrics.virtualThreadPinned(applicationFrame, event.getDuration());
+        if (log.isWarnEnabled()) {
+            log.warn("Virtual thread pinned for {} ms at {}:\n\t{}", event.getDuration().toMillis(), applicationFrame,
+                    String.join("\n\t", frames.stream().limit(MAX_LOGGED_FRAMES).map(VirtualThreadPinningMonitor::toFrameName).toList()));
+        }
+    }
+
+    private static String toFrameName(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName();
+    }
+}
@@ -0,0 +1,118 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps an {@code availability} row for every date from today to {@code horizonDays} past the last bookable arrival
+ * date, so no date of the booking window is reported as not available, or left unchanged by a booking, only because
+ * its row was never created.
+ * <p>
+ * Runs on startup and daily under a cluster-wide lock, so only one node inserts the missing dates; the others find
+ * nothing left to do. The missing dates are inserted with {@code capacity} available in one batch. Once it commits,
+ * the new dates and the stay window of the arrival date opened today go through the {@link AvailabilityChangeTracker},
+ * which writes them to the availability index and cache, so the first bookings of a newly opened date do not all miss
+ * the cache at once.
+ */
+@Component
+@ConditionalOnProperty(name = "campsite.availability-calendar.enabled", havingValue = "true")
+@Slf4j
+public class AvailabilityCalendarMaintainer {
+
+    private static final String LOCK_KEY = "availability-calendar";
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final AvailabilityChangeTracker availabilityChangeTracker;
+
+    private final LockService lockService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final int maxAheadArrivalDays;
+
+    private final int maxStayDays;
+
+    private final int horizonDays;
+
+    private final int capacity;
+
+    private final int lockTimeoutSeconds;
+
+    public AvailabilityCalendarMaintainer(
+            AvailabilityRepository availabilityRepository,
+            AvailabilityChangeTracker availabilityChangeTracker,
+            LockService lockService,
+            PlatformTransactionManager transactionManager,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.max-ahead-arrival-days}") int maxAheadArrivalDays,
+            @Value("${campsite.max-stay-days}") int maxStayDays,
+            @Value("${campsite.availability-calendar.horizon-days:30}") int horizonDays,
+            @Value("${campsite.availability-calendar.capacity:100}") int capacity,
+            @Value("${campsite.lock.timeout-seconds:10}") int lockTimeoutSeconds
+    ) {
+        this.availabilityRepository = availabilityRepository;
+        this.availabilityChangeTracker = availabilityChangeTracker;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.campsiteMetrics = campsiteMetrics;
+        this.maxAheadArrivalDays = Math.max(0, maxAheadArrivalDays);
+        this.maxStayDays = Math.max(0, maxStayDays);
+        this.horizonDays = Math.max(maxStayDays, horizonDays);
+        this.capacity = Math.max(0, capacity);
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${campsite.availability-calendar.cron:0 5 0 * * *}")
+    public void maintain() {
+        try {
+            int provisioned = provision(LocalDate.now());
+            if (provisioned > 0) {
+                log.info("Provisioned availability for {} dates", provisioned);
+            }
+        } catch (Exception e) {
+            log.error("Error provisioning availability: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts the dates missing from {@code today} to the end of the horizon and returns how many were inserted.
+     */
+    public int provision(LocalDate today) {
+        LocalDate openedArrivalDate = today.plusDays(maxAheadArrivalDays);
+        LocalDate horizon = openedArrivalDate.plusDays(horizonDays);
+        int provisioned = lockService.lock(LOCK_KEY, () -> transactionTemplate.execute(status -> {
+            Set<LocalDate> existing = new HashSet<>(availabilityRepository.findDatesBetween(today, horizon));
+            List<LocalDate> missing = today.datesUntil(horizon.plusDays(1))
+                    .filter(date -> !existing.contains(date))
+                    .toList();
+            availabilityRepository.insertAll(missing, capacity);
+
+            Set<LocalDate> warm = new TreeSet<>(missing);
+            openedArrivalDate.datesUntil(openedArrivalDate.plusDays(maxStayDays + 1L)).forEach(warm::add);
+            availabilityChangeTracker.track(warm);
+            return missing.size();
+        }), lockTimeoutSeconds);
+        campsiteMetrics.availabilityProvisioned(provisioned);
+        return provisioned;
+    }
+}
@@ -0,0 +1,103 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.cache.AvailabilityCacheService;
+import com.reservation.campsite.services.events.AvailabilityChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Collects the dates whose availability changed in the current transaction and, once it commits, writes their new
+ * values through to the {@link AvailabilityIndex} and the availability cache, then announces them.
+ * <p>
+ * The values are read right before commit, while the availability locks of the operation are still held, so they are
+ * the committed ones and no reader has to go to the database for them afterwards. All the updates of a transaction are
+ * written in one batch: one query, one cache pipeline and one invalidation message. Nothing is written when the
+ * transaction rolls back.
+ */
+@Component
+@Slf4j
+public class AvailabilityChangeTracker {
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final AvailabilityIndex availabilityIndex;
+
+    private final AvailabilityCacheService availabilityCacheService;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public AvailabilityChangeTracker(AvailabilityRepository availabilityRepository, AvailabilityIndex availabilityIndex, AvailabilityCacheService availabilityCacheService, ApplicationEventPublisher applicationEventPublisher) {
+        this.availabilityRepository = availabilityRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCacheService = availabilityCacheService;
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    /**
+     * Registers {@code dates} as changed by the current transaction, or writes them through immediately when there is
+     * no transaction.
+     */
+    public void track(Collection<LocalDate> dates) {
+        if (dates.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Set<LocalDate> changedDates = new TreeSet<>(dates);
+            writeThrough(changedDates, availabilityRepository.findAvailabilityDaysByDates(changedDates));
+            return;
+        }
+        ChangedDates changedDates = (ChangedDates) TransactionSynchronizationManager.getResource(this);
+        if (changedDates == null) {
+            changedDates = new ChangedDates();
+            TransactionSynchronizationManager.bindResource(this, changedDates);
+            TransactionSynchronizationManager.registerSynchronization(changedDates);
+        }
+        changedDates.dates.addAll(dates);
+    }
+
+    /**
+     * Dates without a row are written as not available, as the readers treat them.
+     */
+    private void writeThrough(Set<LocalDate> dates, List<AvailabilityDay> days) {
+        try {
+            availabilityIndex.put(dates, days);
+            Map<LocalDate, Integer> availabilities = new HashMap<>();
+            dates.forEach(date -> availabilities.put(date, 0));
+            days.forEach(day -> availabilities.put(day.date(), day.available()));
+            availabilityCacheService.writeAll(availabilities);
+            applicationEventPublisher.publishEvent(new AvailabilityChangedEvent(List.copyOf(dates)));
+        } catch (Exception e) {
+            log.error("Error writing through availability changes for {}: {}", dates, e.getMessage());
+        }
+    }
+
+    private final class ChangedDates implements TransactionSynchronization {
+
+        private final Set<LocalDate> dates = new TreeSet<>();
+
+        private List<AvailabilityDay> days = List.of();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            days = availabilityRepository.findAvailabilityDaysByDates(dates);
+        }
+
+        @Override
+        public void afterCommit() {
+            writeThrough(dates, days);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(AvailabilityChangeTracker.this);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.configuration.ReplicaRoutingDataSource;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.projection.AvailabilityRangeVersion;
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process availability index for the booking window, keyed by epoch-day.
+ * <p>
+ * Remaining availability and row versions are kept in primitive {@code int[]} arrays and sold-out days in a
+ * {@link BitSet}, so a range query is a slice over the arrays with no Redis round-trip and no SQL. Snapshots are
+ * immutable and swapped atomically: readers never lock, writers copy the arrays (the window is a few dozen days). The
+ * index is rebuilt periodically from the database, which bounds the staleness caused by bookings taken on other nodes.
+ * A rebuild keeps, per day, whichever of the loaded row and the indexed one has the higher version, so a day put after
+ * commit while the rebuild was reading is not rolled back to the older row.
+ */
+@Component
+@Slf4j
+public class AvailabilityIndex {
+
+    private static final int NO_ROW = -1;
+
+    private final AvailabilityRepository availabilityRepository;
+
+    private final boolean enabled;
+
+    private final int windowDays;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public AvailabilityIndex(
+            AvailabilityRepository availabilityRepository,
+            @Value("${campsite.availability-index.enabled:true}") boolean enabled,
+            @Value("${campsite.max-ahead-arrival-days}") int maxAheadArrivalDays,
+            @Value("${campsite.max-advance-days}") int maxAdvanceDays
+    ) {
+        this.availabilityRepository = availabilityRepository;
+        this.enabled = enabled;
+        this.windowDays = Math.max(maxAheadArrivalDays, maxAdvanceDays) + 2;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the availability for every date between {@code from} and {@code to} (both inclusive), or empty when the
+     * index is disabled or the range is not fully covered by the loaded window.
+     */
+    public Optional<Map<LocalDate, Boolean>> findAvailability(LocalDate from, LocalDate to) {
+        Snapshot current = this.snapshot;
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (!enabled || !current.covers(fromDay, toDay)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(toAvailability(current, current.offsetOf(fromDay), current.offsetOf(toDay)));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${campsite.availability-index.refresh-millis:30000}",
+            fixedDelayString = "${campsite.availability-index.refresh-millis:30000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate firstDate = LocalDate.now();
+        LocalDate lastDate = firstDate.plusDays(windowDays - 1L);
+        try {
+            // read on the primary: a lagging replica would roll back the days loaded or put since the last rebuild
+            List<AvailabilityDay> days = ReplicaRoutingDataSource.onPrimary(
+                    () -> availabilityRepository.findAvailabilityDaysBetween(firstDate, lastDate));
+            long firstEpochDay = firstDate.toEpochDay();
+            int[] available = new int[windowDays];
+            int[] versions = new int[windowDays];
+            Arrays.fill(versions, NO_ROW);
+            BitSet soldOut = new BitSet(windowDays);
+            soldOut.set(0, windowDays);
+            for (AvailabilityDay day : days) {
+                int offset = (int) (day.date().toEpochDay() - firstEpochDay);
+                available[offset] = day.available();
+                versions[offset] = day.version();
+                soldOut.set(offset, !day.hasAvailability());
+            }
+            writeLock.lock();
+            try {
+                keepNewerVersions(this.snapshot, firstEpochDay, available, versions, soldOut);
+                this.snapshot = new Snapshot(firstEpochDay, available, versions, soldOut);
+            } finally {
+                writeLock.unlock();
+            }
+        } catch (Exception e) {
+            log.error("Error refreshing availability index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the row count and version sum of the range together with a supplier of its availability, both reading the
+     * same snapshot, or empty when the index is disabled or the range is not fully covered by the loaded window. Only
+     * the versions are summed here; the availability map is built when the supplier is called.
+     */
+    public Optional<VersionedAvailability> findVersionedAvailability(LocalDate from, LocalDate to) {
+        Snapshot current = this.snapshot;
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (!enabled || !current.covers(fromDay, toDay)) {
+            return Optional.empty();
+        }
+
+        int start = current.offsetOf(fromDay);
+        int end = current.offsetOf(toDay);
+        long count = 0;
+        long versionSum = 0;
+        for (int offset = start; offset <= end; offset++) {
+            int version = current.versions()[offset];
+            if (version != NO_ROW) {
+                count++;
+                versionSum += version;
+            }
+        }
+        return Optional.of(new VersionedAvailability(new AvailabilityRangeVersion(count, versionSum),
+                () -> toAvailability(current, start, end)));
+    }
+
+    private static Map<LocalDate, Boolean> toAvailability(Snapshot current, int start, int end) {
+        Map<LocalDate, Boolean> availability = LinkedHashMap.newLinkedHashMap(end - start + 1);
+        for (int offset = start; offset <= end; offset++) {
+            availability.put(LocalDate.ofEpochDay(current.firstEpochDay() + offset), !current.soldOut().get(offset));
+        }
+        return availability;
+    }
+
+    /**
+     * Sets the remaining availability and version of {@code dates} from {@code days}; a date without a day has no row.
+     * Dates outside the loaded window are ignored.
+     */
+    public void put(Collection<LocalDate> dates, List<AvailabilityDay> days) {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            Snapshot current = this.snapshot;
+            if (current.available().length == 0) {
+                return;
+            }
+            int[] available = current.available().clone();
+            int[] versions = current.versions().clone();
+            BitSet soldOut = (BitSet) current.soldOut().clone();
+            for (LocalDate date : dates) {
+                set(current, available, versions, soldOut, date, 0, NO_ROW);
+            }
+            for (AvailabilityDay day : days) {
+                set(current, available, versions, soldOut, day.date(), day.available(), day.version());
+            }
+            this.snapshot = new Snapshot(current.firstEpochDay(), available, versions, soldOut);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private static void keepNewerVersions(Snapshot current, long firstEpochDay, int[] available, int[] versions,
+                                          BitSet soldOut) {
+        for (int offset = 0; offset < versions.length; offset++) {
+            long epochDay = firstEpochDay + offset;
+            if (current.covers(epochDay, epochDay)) {
+                int currentOffset = current.offsetOf(epochDay);
+                if (current.versions()[currentOffset] > versions[offset]) {
+                    available[offset] = current.available()[currentOffset];
+                    versions[offset] = current.versions()[currentOffset];
+                    soldOut.set(offset, current.soldOut().get(currentOffset));
+                }
+            }
+        }
+    }
+
+    private static void set(Snapshot current, int[] available, int[] versions, BitSet soldOut, LocalDate date,
+                            int remaining, int version) {
+        long epochDay = date.toEpochDay();
+        if (current.covers(epochDay, epochDay)) {
+            int offset = current.offsetOf(epochDay);
+            available[offset] = Math.max(0, remaining);
+            versions[offset] = version;
+            soldOut.set(offset, available[offset] <= 0);
+        }
+    }
+
+    public record VersionedAvailability(AvailabilityRangeVersion version, Supplier<Map<LocalDate, Boolean>> availability) {
+    }
+
+    private record Snapshot(long firstEpochDay, int[] available, int[] versions, BitSet soldOut) {
+
+        private static final Snapshot EMPTY = new Snapshot(0, new int[0], new int[0], new BitSet());
+
+        boolean covers(long fromEpochDay, long toEpochDay) {
+            return available.length > 0
+                    && fromEpochDay <= toEpochDay
+                    && fromEpochDay >= firstEpochDay
+                    && toEpochDay < firstEpochDay + available.length;
+        }
+
+        int offsetOf(long epochDay) {
+            return (int) (epochDay - firstEpochDay);
+        }
+    }
+}
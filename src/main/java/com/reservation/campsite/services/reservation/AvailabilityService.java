@@ -1,16 +1,35 @@
 package com.reservation.campsite.services.reservation;
 
-import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 
+/**
+ * The read methods return {@link AvailabilityDay} values instead of managed entities and run in read-only
+ * transactions, which skip the flush and are served by a replica when replicas are configured. Called from a write they
+ * join its transaction and read from the primary.
+ */
 public interface AvailabilityService {
-    List<Availability> findAvailability(LocalDate from, LocalDate to);
+    @Transactional(readOnly = true)
+    List<AvailabilityDay> findAvailability(LocalDate from, LocalDate to);
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+    /**
+     * Returns at most {@code limit} availabilities of the range in date order, to be used as a keyset page.
+     */
+    @Transactional(readOnly = true)
+    List<AvailabilityDay> findAvailability(LocalDate from, LocalDate to, int limit);
+
+    @Transactional(propagation = Propagation.MANDATORY)
     void updateAvailability(LocalDate arrivalDate, LocalDate departureDate, int plus);
+
+    /**
+     * Applies a different increment per date, issuing one update per distinct increment.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    void updateAvailability(Map<LocalDate, Integer> plusByDate);
 }
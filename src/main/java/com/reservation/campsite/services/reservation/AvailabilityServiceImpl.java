@@ -1,15 +1,18 @@
 package com.reservation.campsite.services.reservation;
 
 import com.reservation.campsite.exception.NotFoundException;
-import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
 import com.reservation.campsite.persistence.repository.AvailabilityRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -17,30 +20,70 @@ public class AvailabilityServiceImpl implements AvailabilityService {
 
     private final AvailabilityRepository availabilityRepository;
 
-    public AvailabilityServiceImpl(AvailabilityRepository availabilityRepository) {
+    private final AvailabilityChangeTracker availabilityChangeTracker;
+
+    public AvailabilityServiceImpl(AvailabilityRepository availabilityRepository, AvailabilityChangeTracker availabilityChangeTracker) {
         this.availabilityRepository = availabilityRepository;
+        this.availabilityChangeTracker = availabilityChangeTracker;
     }
 
 
+    @Transactional(readOnly = true)
     @Override
-    public List<Availability> findAvailability(LocalDate arrivalDate, LocalDate departureDate) {
-        return this.availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, departureDate);
+    public List<AvailabilityDay> findAvailability(LocalDate arrivalDate, LocalDate departureDate) {
+        return this.availabilityRepository.findAvailabilityDaysBetween(arrivalDate, departureDate);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<AvailabilityDay> findAvailability(LocalDate from, LocalDate to, int limit) {
+        return this.availabilityRepository.findAvailabilityDaysBetween(from, to, Limit.of(limit));
+    }
 
-    @Transactional(propagation = Propagation.SUPPORTS)
+
+    @Transactional(propagation = Propagation.MANDATORY)
     @Override
     public void updateAvailability(LocalDate arrivalDate, LocalDate departureDate, int plus) {
+        long days = ChronoUnit.DAYS.between(arrivalDate, departureDate) + 1;
+        int updated = this.availabilityRepository.incrementAvailability(arrivalDate, departureDate, plus);
+        if (updated < days) {
+            if (Integer.signum(plus) == -1) {
+                throw NotFoundException.availabilityDate(findFirstUnavailableDate(arrivalDate.datesUntil(departureDate.plusDays(1)).toList(), plus));
+            }
+            log.warn("Availability increased for {} of {} days between {} and {}", updated, days, arrivalDate, departureDate);
+        }
 
-        List<Availability> availabilities = this.availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, departureDate);
-        availabilities.forEach(availability -> {
-            if (availability.getAvailable() == 0 && Integer.signum(plus) == -1) {
-                throw NotFoundException.availabilityDate(availability.getDate());
+        availabilityChangeTracker.track(arrivalDate.datesUntil(departureDate.plusDays(1)).toList());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    @Override
+    public void updateAvailability(Map<LocalDate, Integer> plusByDate) {
+        Map<Integer, List<LocalDate>> datesByPlus = plusByDate.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue, TreeMap::new,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        datesByPlus.forEach((plus, dates) -> {
+            int updated = this.availabilityRepository.incrementAvailabilityByDates(dates, plus);
+            if (updated < dates.size()) {
+                if (Integer.signum(plus) == -1) {
+                    throw NotFoundException.availabilityDate(findFirstUnavailableDate(dates.stream().sorted().toList(), plus));
+                }
+                log.warn("Availability increased for {} of {} dates by {}", updated, dates.size(), plus);
             }
-            availability.setAvailable(availability.getAvailable() + plus);
         });
 
-        availabilityRepository.saveAll(availabilities);
+        availabilityChangeTracker.track(plusByDate.keySet());
+    }
 
+    private LocalDate findFirstUnavailableDate(List<LocalDate> sortedDates, int plus) {
+        LocalDate firstDate = sortedDates.get(0);
+        Map<LocalDate, Integer> availableByDate = this.availabilityRepository.findAvailabilityDaysBetween(firstDate, sortedDates.get(sortedDates.size() - 1))
+                .stream()
+                .collect(Collectors.toMap(AvailabilityDay::date, AvailabilityDay::available));
+        return sortedDates.stream()
+                .filter(date -> !availableByDate.containsKey(date) || availableByDate.get(date) + plus < 0)
+                .findFirst()
+                .orElse(firstDate);
     }
 }
@@ -0,0 +1,13 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.persistence.entity.Reservation;
+
+public interface BookingPipeline {
+
+    /**
+     * Enqueues {@code request} to the writer of its date partition and waits until the batch it was committed with
+     * returns, throwing the error of the request if it was not created.
+     */
+    Reservation submit(ReservationRequestDTO request);
+}
@@ -0,0 +1,200 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single writer per date partition for flash-sale openings, enabled with {@code campsite.booking-pipeline.enabled}.
+ * <p>
+ * Requests are hashed by arrival date onto a fixed number of bounded queues, each drained by one writer thread. A
+ * writer takes every request waiting in its queue, up to the batch size, and creates them with one
+ * {@link BatchMode#PARTIAL} batch: requests are allocated availability sequentially against the counters read once
+ * for the batch, and the availability deltas and reservation inserts of the whole batch are committed in one
+ * transaction. Callers are released when the batch commits, so a hot date costs one transaction and one set of
+ * availability locks per batch instead of per request. Writers of different partitions may still touch the same dates
+ * and are serialized by the availability locks. A full queue is rejected as high demand instead of growing the
+ * backlog.
+ * <p>
+ * A booking is claimed either by its writer, before the batch is built, or by its caller when the wait runs out, never
+ * both. A caller that claims it first gets the high demand error and the booking is dropped from the queue, so a retry
+ * can not create a second reservation; a caller that loses the claim waits for the batch that is committing it.
+ */
+@Service
+@ConditionalOnProperty(name = "campsite.booking-pipeline.enabled", havingValue = "true")
+@Slf4j
+public class BookingPipelineImpl implements BookingPipeline, SmartLifecycle {
+
+    private static final long POLL_MILLIS = 100;
+
+    private final ReservationBatchService reservationBatchService;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final int maxBatchSize;
+
+    private final long waitMillis;
+
+    private final List<BlockingQueue<PendingBooking>> partitions;
+
+    private final List<Thread> writers = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public BookingPipelineImpl(
+            ReservationBatchService reservationBatchService,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.booking-pipeline.partitions:8}") int partitions,
+            @Value("${campsite.booking-pipeline.queue-capacity:4096}") int queueCapacity,
+            @Value("${campsite.batch.max-size:100}") int maxBatchSize,
+            @Value("${campsite.booking-pipeline.wait-millis:30000}") long waitMillis
+    ) {
+        this.reservationBatchService = reservationBatchService;
+        this.campsiteMetrics = campsiteMetrics;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.waitMillis = waitMillis;
+        this.partitions = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, partitions); i++) {
+            this.partitions.add(new ArrayBlockingQueue<>(Math.max(1, queueCapacity)));
+        }
+    }
+
+    @Override
+    public Reservation submit(ReservationRequestDTO request) {
+        PendingBooking booking = new PendingBooking(request, new CompletableFuture<>(), new AtomicBoolean());
+        if (!running || !partitionOf(request).offer(booking)) {
+            throw BadRequestException.lock();
+        }
+        return await(booking);
+    }
+
+    private BlockingQueue<PendingBooking> partitionOf(ReservationRequestDTO request) {
+        int hash = request.getArrivalDate() != null ? request.getArrivalDate().hashCode() : 0;
+        return partitions.get(Math.floorMod(hash, partitions.size()));
+    }
+
+    private Reservation await(PendingBooking booking) {
+        try {
+            try {
+                return booking.result().get(waitMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (booking.claim()) {
+                    booking.result().cancel(false);
+                    throw BadRequestException.lock();
+                }
+                // the writer already took the booking, its outcome is the one of this request
+                return booking.result().get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (booking.claim()) {
+                booking.result().cancel(false);
+            }
+            throw BadRequestException.lock();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void drain(BlockingQueue<PendingBooking> queue) {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBooking first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatchSize - 1);
+                batch.removeIf(booking -> !booking.claim());
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingBooking> batch) {
+        try {
+            ReservationBatchResult result = reservationBatchService.create(ReservationBatchRequestDTO.builder()
+                    .mode(BatchMode.PARTIAL)
+                    .reservations(batch.stream().map(PendingBooking::request).toList())
+                    .build());
+            for (ReservationBatchResult.Item item : result.items()) {
+                CompletableFuture<Reservation> future = batch.get(item.index()).result();
+                if (item.isCreated()) {
+                    future.complete(item.reservation());
+                } else {
+                    future.completeExceptionally(item.error());
+                }
+            }
+            campsiteMetrics.bookingBatchCommitted(batch.size());
+        } catch (Exception e) {
+            log.error("Error committing booking batch of {} requests: {}", batch.size(), e.getMessage());
+            batch.forEach(booking -> booking.result().completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<PendingBooking> queue = partitions.get(i);
+            writers.add(Thread.ofPlatform().name("booking-writer-" + i).daemon(true).start(() -> drain(queue)));
+        }
+        log.info("Booking pipeline started with {} partitions", partitions.size());
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Thread writer : writers) {
+            try {
+                writer.join(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        writers.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private record PendingBooking(ReservationRequestDTO request, CompletableFuture<Reservation> result, AtomicBoolean claimed) {
+
+        /**
+         * Takes the booking for the writer or for a caller giving up on it; only the first claim succeeds.
+         */
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.persistence.entity.Reservation;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch creation, one item per requested reservation in request order.
+ */
+public record ReservationBatchResult(BatchMode mode, List<Item> items) {
+
+    public long createdCount() {
+        return items.stream().filter(Item::isCreated).count();
+    }
+
+    public long failedCount() {
+        return items.size() - createdCount();
+    }
+
+    public record Item(int index, Reservation reservation, BusinessException error) {
+
+        public static Item created(int index, Reservation reservation) {
+            return new Item(index, reservation, null);
+        }
+
+        public static Item failed(int index, BusinessException error) {
+            return new Item(index, null, error);
+        }
+
+        public boolean isCreated() {
+            return error == null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
+
+public interface ReservationBatchService {
+
+    ReservationBatchResult create(ReservationBatchRequestDTO reservationBatchRequestDTO);
+}
@@ -0,0 +1,238 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.BusinessException;
+import com.reservation.campsite.exception.NotFoundException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.validation.ValidateService;
+import com.reservation.campsite.util.LockKeys;
+import com.reservation.campsite.util.RangeDate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+import static com.reservation.campsite.util.ParamName.*;
+
+/**
+ * Creates a batch of reservations with one duplicate check query, one availability read, one update per distinct
+ * availability delta and one JDBC batch insert, under the locks of every date touched by the batch.
+ * <p>
+ * Every item is validated up front. In {@link BatchMode#ALL_OR_NOTHING} the first failure aborts the batch before
+ * anything is written; in {@link BatchMode#PARTIAL} failed items are reported and the rest are created. Items are
+ * allocated availability in request order.
+ */
+@Service
+@Slf4j
+public class ReservationBatchServiceImpl implements ReservationBatchService {
+
+    private static final String CREATE_BATCH_OPERATION = "createBatch";
+
+    private static final int DECREASE_AVAILABILITY = -1;
+
+    private final AvailabilityService availabilityService;
+
+    private final ValidateService validateService;
+
+    private final ReservationRepository reservationRepository;
+
+    private final LockService lockService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    @Value("${campsite.max-stay-days}")
+    private int maxStayDays;
+
+    @Value("${campsite.min-stay-days}")
+    private int minStayDays;
+
+    @Value("${campsite.min-ahead-arrival-days}")
+    private int minAheadArrivalDays;
+
+    @Value("${campsite.max-ahead-arrival-days}")
+    private int maxAheadArrivalDays;
+
+    @Value("${campsite.lock.timeout-seconds:10}")
+    private int lockTimeoutSeconds;
+
+    @Value("${campsite.batch.max-size:100}")
+    private int maxBatchSize;
+
+    public ReservationBatchServiceImpl(AvailabilityService availabilityService, ValidateService validateService, ReservationRepository reservationRepository, LockService lockService, PlatformTransactionManager transactionManager, CampsiteMetrics campsiteMetrics) {
+        this.availabilityService = availabilityService;
+        this.validateService = validateService;
+        this.reservationRepository = reservationRepository;
+        this.lockService = lockService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.campsiteMetrics = campsiteMetrics;
+    }
+
+    @Override
+    public ReservationBatchResult create(ReservationBatchRequestDTO reservationBatchRequestDTO) {
+        ReservationBatchResult result = campsiteMetrics.recordBooking(CREATE_BATCH_OPERATION, () -> createBatch(reservationBatchRequestDTO));
+        result.items().stream()
+                .filter(item -> !item.isCreated())
+                .forEach(item -> campsiteMetrics.rejected(CREATE_BATCH_OPERATION, item.error().getErrorCode()));
+        return result;
+    }
+
+    private ReservationBatchResult createBatch(ReservationBatchRequestDTO reservationBatchRequestDTO) {
+        validateService.isNotNull(reservationBatchRequestDTO, RESERVATIONS.getNameParam());
+        List<ReservationRequestDTO> requests = reservationBatchRequestDTO.getReservations();
+        validateService.isNotNull(requests, RESERVATIONS.getNameParam());
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            throw BadRequestException.batchTooLarge(requests.size(), maxBatchSize);
+        }
+        BatchMode mode = Objects.requireNonNullElse(reservationBatchRequestDTO.getMode(), BatchMode.ALL_OR_NOTHING);
+
+        BusinessException[] errors = new BusinessException[requests.size()];
+        RangeDate<LocalDate> validArrivalDateRange = validateService.getValidArrivalDateRange(minAheadArrivalDays, maxAheadArrivalDays);
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                validateService.validateReservationRequest(requests.get(i), minStayDays, maxStayDays, validArrivalDateRange);
+            } catch (BusinessException e) {
+                errors[i] = e;
+            }
+        }
+        validateNotOverlappingInBatch(requests, errors);
+        if (shouldAbort(mode, errors)) {
+            return toResult(mode, errors, new Reservation[requests.size()]);
+        }
+
+        List<Integer> pending = pendingIndexes(errors);
+        if (pending.isEmpty()) {
+            return toResult(mode, errors, new Reservation[requests.size()]);
+        }
+        Set<String> lockKeys = pending.stream()
+                .map(requests::get)
+                .flatMap(request -> LockKeys.availabilityLockKeys(request.getArrivalDate(), request.getDepartureDate()).stream())
+                .collect(Collectors.toCollection(TreeSet::new));
+        return lockService.lock(lockKeys,
+                () -> transactionTemplate.execute(status -> createInTransaction(mode, requests, pending, errors)),
+                lockTimeoutSeconds);
+    }
+
+    private ReservationBatchResult createInTransaction(BatchMode mode, List<ReservationRequestDTO> requests, List<Integer> pending, BusinessException[] errors) {
+        LocalDate from = pending.stream().map(i -> requests.get(i).getArrivalDate()).min(Comparator.naturalOrder()).orElseThrow();
+        LocalDate to = pending.stream().map(i -> requests.get(i).getDepartureDate()).max(Comparator.naturalOrder()).orElseThrow();
+
+        validateNotAlreadyExistReservations(requests, pending, errors, from, to);
+
+        Map<LocalDate, Integer> availableByDate = availabilityService.findAvailability(from, to).stream()
+                .collect(Collectors.toMap(AvailabilityDay::date, AvailabilityDay::available));
+        Map<LocalDate, Integer> plusByDate = new TreeMap<>();
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : pending) {
+            if (errors[i] != null) {
+                continue;
+            }
+            ReservationRequestDTO request = requests.get(i);
+            List<LocalDate> dates = request.getArrivalDate().datesUntil(request.getDepartureDate().plusDays(1)).toList();
+            Optional<LocalDate> unavailableDate = dates.stream()
+                    .filter(date -> availableByDate.getOrDefault(date, 0) + plusByDate.getOrDefault(date, 0) <= 0)
+                    .findFirst();
+            if (unavailableDate.isPresent()) {
+                errors[i] = NotFoundException.availabilityDate(unavailableDate.get());
+            } else {
+                dates.forEach(date -> plusByDate.merge(date, DECREASE_AVAILABILITY, Integer::sum));
+                accepted.add(i);
+            }
+        }
+
+        Reservation[] created = new Reservation[requests.size()];
+        if (shouldAbort(mode, errors) || accepted.isEmpty()) {
+            return toResult(mode, errors, created);
+        }
+
+        availabilityService.updateAvailability(plusByDate);
+        List<Reservation> reservations = reservationRepository.insertAll(accepted.stream()
+                .map(i -> mapper(requests.get(i)).toReservation())
+                .toList());
+        for (int i = 0; i < accepted.size(); i++) {
+            created[accepted.get(i)] = reservations.get(i);
+        }
+        return toResult(mode, errors, created);
+    }
+
+    private static void validateNotOverlappingInBatch(List<ReservationRequestDTO> requests, BusinessException[] errors) {
+        Map<String, List<Integer>> indexesByEmail = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                continue;
+            }
+            ReservationRequestDTO request = requests.get(i);
+            List<Integer> sameEmail = indexesByEmail.computeIfAbsent(request.getEmail(), email -> new ArrayList<>());
+            Optional<ReservationRequestDTO> overlapping = sameEmail.stream()
+                    .map(requests::get)
+                    .filter(other -> overlaps(other.getArrivalDate(), other.getDepartureDate(), request.getArrivalDate(), request.getDepartureDate()))
+                    .findFirst();
+            if (overlapping.isPresent()) {
+                errors[i] = BadRequestException.reservationAlreadyExists(mapper(mapper(overlapping.get()).toReservation()).toReservationDTO());
+            } else {
+                sameEmail.add(i);
+            }
+        }
+    }
+
+    private void validateNotAlreadyExistReservations(List<ReservationRequestDTO> requests, List<Integer> pending, BusinessException[] errors, LocalDate from, LocalDate to) {
+        Set<String> emails = pending.stream().map(i -> requests.get(i).getEmail()).collect(Collectors.toSet());
+        Map<String, List<Reservation>> existingByEmail = reservationRepository.findByEmailInAndOverlappingDateRangeNotCancelled(emails, from, to, from.minusDays(maxStayDays))
+                .stream()
+                .collect(Collectors.groupingBy(Reservation::getEmail));
+        for (int i : pending) {
+            ReservationRequestDTO request = requests.get(i);
+            existingByEmail.getOrDefault(request.getEmail(), List.of()).stream()
+                    .filter(existing -> overlaps(existing.getArrivalDate(), existing.getDepartureDate(), request.getArrivalDate(), request.getDepartureDate()))
+                    .findFirst()
+                    .ifPresent(existing -> errors[i] = BadRequestException.reservationAlreadyExists(mapper(existing).toReservationDTO()));
+        }
+    }
+
+    private static boolean overlaps(LocalDate arrivalDate, LocalDate departureDate, LocalDate otherArrivalDate, LocalDate otherDepartureDate) {
+        return !arrivalDate.isAfter(otherDepartureDate) && !departureDate.isBefore(otherArrivalDate);
+    }
+
+    private static boolean shouldAbort(BatchMode mode, BusinessException[] errors) {
+        return mode == BatchMode.ALL_OR_NOTHING && Arrays.stream(errors).anyMatch(Objects::nonNull);
+    }
+
+    private static List<Integer> pendingIndexes(BusinessException[] errors) {
+        List<Integer> pending = new ArrayList<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null) {
+                pending.add(i);
+            }
+        }
+        return pending;
+    }
+
+    private static ReservationBatchResult toResult(BatchMode mode, BusinessException[] errors, Reservation[] created) {
+        boolean aborted = shouldAbort(mode, errors);
+        List<ReservationBatchResult.Item> items = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                items.add(ReservationBatchResult.Item.failed(i, errors[i]));
+            } else if (aborted || created[i] == null) {
+                items.add(ReservationBatchResult.Item.failed(i, BadRequestException.batchAborted()));
+            } else {
+                items.add(ReservationBatchResult.Item.created(i, created[i]));
+            }
+        }
+        return new ReservationBatchResult(mode, items);
+    }
+}
@@ -0,0 +1,30 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.util.RangeDate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.function.Consumer;
+
+public interface ReservationListingService {
+
+    /**
+     * Validates the arrival date range of a listing; both dates are required and included.
+     */
+    RangeDate<LocalDate> getArrivalRange(LocalDate arrivalFrom, LocalDate arrivalTo);
+
+    /**
+     * Returns up to {@code limit} reservations arriving in the range, cancelled ones included, by arrival date and id,
+     * starting after {@code cursor}, or from the start of the range when it is {@code null}.
+     */
+    @Transactional(readOnly = true)
+    ReservationPage findArrivals(LocalDate arrivalFrom, LocalDate arrivalTo, String cursor, Integer limit);
+
+    /**
+     * Passes every reservation arriving in an already validated range to {@code consumer} by arrival date and id, as
+     * they are read from the database, so memory does not grow with the number of reservations.
+     */
+    @Transactional(readOnly = true)
+    void exportArrivals(RangeDate<LocalDate> range, Consumer<Reservation> consumer);
+}
@@ -0,0 +1,128 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.validation.ValidateService;
+import com.reservation.campsite.util.RangeDate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+import static com.reservation.campsite.util.ParamName.ARRIVAL_FROM;
+import static com.reservation.campsite.util.ParamName.ARRIVAL_TO;
+
+/**
+ * Lists the reservations by arrival date for the operations staff.
+ * <p>
+ * Pages are read with a keyset on (arrival date, id) instead of an offset: the cursor carries the position of the last
+ * reservation returned and the next page starts right after it on {@code reservation_arrival_index}, so a page costs
+ * the same at any depth and reservations booked meanwhile neither repeat nor shift the following pages. The cursor is
+ * opaque to clients. Exports skip the pages and read the whole range through a single forward-only cursor.
+ */
+@Service
+public class ReservationListingServiceImpl implements ReservationListingService {
+
+    private static final String CURSOR_SEPARATOR = ":";
+
+    private static final String FIND_ARRIVALS_OPERATION = "findArrivals";
+
+    private static final String EXPORT_ARRIVALS_OPERATION = "exportArrivals";
+
+    private final ReservationRepository reservationRepository;
+
+    private final ValidateService validateService;
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final int defaultPageSize;
+
+    private final int maxPageSize;
+
+    public ReservationListingServiceImpl(
+            ReservationRepository reservationRepository,
+            ValidateService validateService,
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.reservation-listing.default-page-size:100}") int defaultPageSize,
+            @Value("${campsite.reservation-listing.max-page-size:1000}") int maxPageSize
+    ) {
+        this.reservationRepository = reservationRepository;
+        this.validateService = validateService;
+        this.campsiteMetrics = campsiteMetrics;
+        this.maxPageSize = Math.max(1, maxPageSize);
+        this.defaultPageSize = Math.min(Math.max(1, defaultPageSize), this.maxPageSize);
+    }
+
+    @Override
+    public RangeDate<LocalDate> getArrivalRange(LocalDate arrivalFrom, LocalDate arrivalTo) {
+        validateService.isNotNull(arrivalFrom, ARRIVAL_FROM.getNameParam());
+        validateService.isNotNull(arrivalTo, ARRIVAL_TO.getNameParam());
+        validateService.validateDateRange(arrivalFrom, ARRIVAL_FROM.getNameParam(), arrivalTo, ARRIVAL_TO.getNameParam());
+        return mapper(arrivalFrom, arrivalTo).toDateRange();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ReservationPage findArrivals(LocalDate arrivalFrom, LocalDate arrivalTo, String cursor, Integer limit) {
+        return campsiteMetrics.recordOperation(FIND_ARRIVALS_OPERATION, () -> {
+            RangeDate<LocalDate> range = getArrivalRange(arrivalFrom, arrivalTo);
+            int pageSize = limit != null ? limit : defaultPageSize;
+            if (pageSize < 1 || pageSize > maxPageSize) {
+                throw BadRequestException.invalidPageSize(pageSize, maxPageSize);
+            }
+            LocalDate afterArrivalDate = range.getFrom();
+            long afterId = Long.MIN_VALUE;
+            if (cursor != null) {
+                Position position = decodeCursor(cursor);
+                afterArrivalDate = position.arrivalDate();
+                afterId = position.id();
+            }
+            // one extra row tells whether there is a next page without an empty last one
+            List<Reservation> reservations = reservationRepository.findArrivingAfter(range.getFrom(), range.getTo(),
+                    afterArrivalDate, afterId, Limit.of(pageSize + 1));
+            if (reservations.size() <= pageSize) {
+                return new ReservationPage(reservations, null);
+            }
+            List<Reservation> page = reservations.subList(0, pageSize);
+            Reservation last = page.get(pageSize - 1);
+            return new ReservationPage(List.copyOf(page), encodeCursor(last.getArrivalDate(), last.getId()));
+        });
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public void exportArrivals(RangeDate<LocalDate> range, Consumer<Reservation> consumer) {
+        campsiteMetrics.recordOperation(EXPORT_ARRIVALS_OPERATION, () -> {
+            reservationRepository.streamArriving(range.getFrom(), range.getTo(), consumer);
+            return null;
+        });
+    }
+
+    private static String encodeCursor(LocalDate arrivalDate, Long id) {
+        String position = arrivalDate + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf(CURSOR_SEPARATOR);
+            return new Position(LocalDate.parse(position.substring(0, separator)),
+                    Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw BadRequestException.invalidCursor(cursor);
+        }
+    }
+
+    private record Position(LocalDate arrivalDate, long id) {
+    }
+}
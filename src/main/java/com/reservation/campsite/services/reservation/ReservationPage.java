@@ -0,0 +1,12 @@
+package com.reservation.campsite.services.reservation;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+
+import java.util.List;
+
+/**
+ * One page of an arrival listing. {@code nextCursor} resumes the listing after the last reservation of the page and is
+ * {@code null} on the last page.
+ */
+public record ReservationPage(List<Reservation> reservations, String nextCursor) {
+}
@@ -3,14 +3,49 @@ package com.reservation.campsite.services.reservation;
 import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.dto.request.ReservationUpdateDTO;
 import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.util.RangeDate;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 public interface ReservationService {
 
     Map<LocalDate, Boolean> findAvailability(LocalDate dateFrom, LocalDate dateTo);
 
+    /**
+     * Applies the default range when no date is given and validates it, as {@link #findAvailability} does.
+     */
+    RangeDate<LocalDate> getAvailabilityRange(LocalDate dateFrom, LocalDate dateTo);
+
+    /**
+     * Returns a weak entity tag derived from the row versions of one index snapshot, which changes whenever a date of
+     * the range is updated or added, and a supplier of the availability of the range read from the same snapshot; the
+     * availability is only built when the supplier is called. The tag is {@code null} when the range is not served by
+     * the index, since the cached availability carries no version, and the availability is then read up front.
+     */
+    TaggedAvailability findTaggedAvailability(LocalDate dateFrom, LocalDate dateTo);
+
+    /**
+     * Passes every date of an already validated range to {@code consumer} in date order, reading the availability in
+     * fixed-size pages so memory does not grow with the range.
+     */
+    void streamAvailability(RangeDate<LocalDate> range, BiConsumer<LocalDate, Boolean> consumer);
+
+    /**
+     * Returns the reservation, usually from the second-level cache without reaching the database.
+     */
+    @Transactional(readOnly = true)
+    Reservation findReservation(Long reservationId);
+
+    /**
+     * Returns every reservation of {@code email}, cancelled ones included, by arrival date.
+     */
+    @Transactional(readOnly = true)
+    List<Reservation> findReservationsByEmail(String email);
+
     Reservation create(ReservationRequestDTO reservationRequestDTO);
 
     Reservation update(Long reservationId, ReservationUpdateDTO reservationUpdateDTO);
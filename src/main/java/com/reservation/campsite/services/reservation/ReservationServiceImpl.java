@@ -1,28 +1,40 @@
 package com.reservation.campsite.services.reservation;
 
 import com.reservation.campsite.configuration.CacheConfig;
+import com.reservation.campsite.configuration.ReplicaRoutingDataSource;
 import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.dto.request.ReservationUpdateDTO;
 import com.reservation.campsite.exception.BadRequestException;
 import com.reservation.campsite.exception.NotFoundException;
-import com.reservation.campsite.persistence.entity.Availability;
 import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.projection.AvailabilityRangeVersion;
 import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.cache.AvailabilityCacheService;
+import com.reservation.campsite.services.cache.ReservationCacheService;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.retry.RetryService;
 import com.reservation.campsite.services.validation.ValidateService;
+import com.reservation.campsite.util.LockKeys;
 import com.reservation.campsite.util.RangeDate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import static com.reservation.campsite.mapper.Mapper.mapper;
@@ -40,6 +52,22 @@ public class ReservationServiceImpl implements ReservationService {
 
     private final CacheManager cacheManager;
 
+    private final AvailabilityIndex availabilityIndex;
+
+    private final AvailabilityCacheService availabilityCacheService;
+
+    private final ReservationCacheService reservationCacheService;
+
+    private final LockService lockService;
+
+    private final RetryService retryService;
+
+    private final Optional<BookingPipeline> bookingPipeline;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final CampsiteMetrics campsiteMetrics;
+
 
     @Value("${campsite.max-advance-days}")
     private int maxAdvanceDays;
@@ -56,91 +84,205 @@ public class ReservationServiceImpl implements ReservationService {
     @Value("${campsite.max-ahead-arrival-days}")
     private int maxAheadArrivalDays;
 
+    @Value("${campsite.lock.timeout-seconds:10}")
+    private int lockTimeoutSeconds;
+
+    @Value("${campsite.availability-stream.page-size:500}")
+    private int availabilityStreamPageSize;
+
     private static final int INCREASE_AVAILABILITY = 1;
 
     private static final int DECREASE_AVAILABILITY = -1;
 
+    private static final String FIND_AVAILABILITY_OPERATION = "findAvailability";
+
+    private static final String STREAM_AVAILABILITY_OPERATION = "streamAvailability";
+
+    private static final String CREATE_OPERATION = "create";
 
-    public ReservationServiceImpl(AvailabilityService availabilityService, ValidateService validateService, ReservationRepository reservationRepository, CacheManager cacheManager) {
+    private static final String UPDATE_OPERATION = "update";
+
+    private static final String CANCEL_OPERATION = "cancel";
+
+
+    public ReservationServiceImpl(AvailabilityService availabilityService, ValidateService validateService, ReservationRepository reservationRepository, CacheManager cacheManager, AvailabilityIndex availabilityIndex, AvailabilityCacheService availabilityCacheService, ReservationCacheService reservationCacheService, LockService lockService, RetryService retryService, Optional<BookingPipeline> bookingPipeline, PlatformTransactionManager transactionManager, CampsiteMetrics campsiteMetrics) {
         this.availabilityService = availabilityService;
         this.validateService = validateService;
         this.reservationRepository = reservationRepository;
         this.cacheManager = cacheManager;
+        this.availabilityIndex = availabilityIndex;
+        this.availabilityCacheService = availabilityCacheService;
+        this.reservationCacheService = reservationCacheService;
+        this.lockService = lockService;
+        this.retryService = retryService;
+        this.bookingPipeline = bookingPipeline;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.campsiteMetrics = campsiteMetrics;
     }
 
 
     @Override
     public Map<LocalDate, Boolean> findAvailability(LocalDate arrivalDate, LocalDate departureDate) {
+        return campsiteMetrics.recordOperation(FIND_AVAILABILITY_OPERATION, () -> findAvailabilityInRange(arrivalDate, departureDate));
+    }
+
+    private Map<LocalDate, Boolean> findAvailabilityInRange(LocalDate dateFrom, LocalDate dateTo) {
+        RangeDate<LocalDate> range = getAvailabilityRange(dateFrom, dateTo);
+        return availabilityIndex.findAvailability(range.getFrom(), range.getTo())
+                .orElseGet(() -> findAvailabilityFromCache(range.getFrom(), range.getTo()));
+    }
+
+    @Override
+    public TaggedAvailability findTaggedAvailability(LocalDate dateFrom, LocalDate dateTo) {
+        return campsiteMetrics.recordOperation(FIND_AVAILABILITY_OPERATION, () -> {
+            RangeDate<LocalDate> range = getAvailabilityRange(dateFrom, dateTo);
+            LocalDate from = range.getFrom();
+            LocalDate to = range.getTo();
+            return availabilityIndex.findVersionedAvailability(from, to)
+                    .map(indexed -> new TaggedAvailability(getETag(from, to, indexed.version()), indexed.availability()))
+                    .orElseGet(() -> {
+                        Map<LocalDate, Boolean> availability = findAvailabilityFromCache(from, to);
+                        return new TaggedAvailability(null, () -> availability);
+                    });
+        });
+    }
+
+    private static String getETag(LocalDate from, LocalDate to, AvailabilityRangeVersion version) {
+        return "W/\"" + Long.toHexString(from.toEpochDay()) + "-" + Long.toHexString(to.toEpochDay())
+                + "-" + Long.toHexString(version.count()) + "-" + Long.toHexString(version.versionSum()) + "\"";
+    }
+
+    private Map<LocalDate, Boolean> findAvailabilityFromCache(LocalDate arrivalDate, LocalDate departureDate) {
+        List<LocalDate> dates = arrivalDate.datesUntil(departureDate.plusDays(1)).toList();
+        Map<LocalDate, Integer> cached = availabilityCacheService.getAll(dates);
+        List<LocalDate> missingDates = dates.stream().filter(date -> !cached.containsKey(date)).toList();
+
+        Map<LocalDate, Integer> loaded = Map.of();
+        if (!missingDates.isEmpty()) {
+            loaded = findAvailabilityFromDatabase(missingDates);
+            availabilityCacheService.putAll(loaded);
+        }
+
+        Map<LocalDate, Boolean> result = LinkedHashMap.newLinkedHashMap(dates.size());
+        for (LocalDate date : dates) {
+            Integer available = cached.get(date);
+            result.put(date, (available != null ? available : loaded.getOrDefault(date, 0)) > 0);
+        }
+        return result;
+    }
+
+    @Override
+    public RangeDate<LocalDate> getAvailabilityRange(LocalDate arrivalDate, LocalDate departureDate) {
         if (arrivalDate == null && departureDate == null) {
             arrivalDate = LocalDate.now().plusDays(1);
             departureDate = arrivalDate.plusDays(maxAdvanceDays);
         }
 
         this.validateStayRangeDays(arrivalDate, departureDate, minAheadArrivalDays, maxAheadArrivalDays);
+        return mapper(arrivalDate, departureDate).toDateRange();
+    }
+
+    @Override
+    public void streamAvailability(RangeDate<LocalDate> range, BiConsumer<LocalDate, Boolean> consumer) {
+        campsiteMetrics.recordOperation(STREAM_AVAILABILITY_OPERATION, () -> {
+            streamAvailabilityInRange(range.getFrom(), range.getTo(), consumer);
+            return null;
+        });
+    }
+
+    /**
+     * Reads keyset pages of {@code pageSize} rows starting after the last emitted date. Dates without a row are
+     * emitted as not available, as in {@link #findAvailability}.
+     */
+    private void streamAvailabilityInRange(LocalDate from, LocalDate to, BiConsumer<LocalDate, Boolean> consumer) {
+        int pageSize = Math.max(1, availabilityStreamPageSize);
+        LocalDate next = from;
+        List<AvailabilityDay> page;
+        do {
+            page = availabilityService.findAvailability(next, to, pageSize);
+            for (AvailabilityDay day : page) {
+                emitNotAvailable(next, day.date(), consumer);
+                consumer.accept(day.date(), day.hasAvailability());
+                next = day.date().plusDays(1);
+            }
+        } while (page.size() == pageSize && !next.isAfter(to));
+        emitNotAvailable(next, to.plusDays(1), consumer);
+    }
 
-        RedisCache availabilityRangeDatesCache = (RedisCache) cacheManager.getCache(CacheConfig.AVAILABILITY_RANGE_DATES_CACHE);
-
-
-        Map<LocalDate, Boolean> result;
-        if (availabilityRangeDatesCache != null) {
-            result = Objects.requireNonNull(arrivalDate).datesUntil(departureDate.plusDays(1))
-                    .collect(
-                            Collectors.toMap(
-                                    date -> date,
-                                    date -> {
-                                        Boolean available = availabilityRangeDatesCache.get(String.valueOf(date), Boolean.class);
-                                        if(available == null) {
-                                            available = availabilityService.findAvailability(date, date).
-                                                    stream().findFirst().map(availability -> availability.getAvailable() > 0).orElse(false);
-                                            availabilityRangeDatesCache.put(String.valueOf(date), available);
-                                        }
-                                        return available;
-                                    }
-                            )
-                    );
-
-        } else {
-            result = availabilityService.findAvailability(arrivalDate, departureDate)
-                    .stream()
-                    .collect(
-                            Collectors.toMap(
-                                    Availability::getDate,
-                                    entry -> entry.getAvailable() > 0
-                            )
-                    );
+    private static void emitNotAvailable(LocalDate from, LocalDate toExclusive, BiConsumer<LocalDate, Boolean> consumer) {
+        for (LocalDate date = from; date.isBefore(toExclusive); date = date.plusDays(1)) {
+            consumer.accept(date, false);
         }
+    }
 
-        return result;
+    private Map<LocalDate, Integer> findAvailabilityFromDatabase(List<LocalDate> missingDates) {
+        Map<LocalDate, Integer> loaded = missingDates.stream()
+                .collect(Collectors.toMap(Function.identity(), date -> 0));
+        // read on the primary: the loaded values stay cached until the next write or the TTL, far longer than the lag
+        ReplicaRoutingDataSource.onPrimary(
+                        () -> availabilityService.findAvailability(missingDates.get(0), missingDates.get(missingDates.size() - 1)))
+                .stream()
+                .filter(day -> loaded.containsKey(day.date()))
+                .forEach(day -> loaded.put(day.date(), day.available()));
+        return loaded;
+    }
+
+
+    @Transactional(readOnly = true)
+    @Override
+    public Reservation findReservation(Long reservationId) {
+        validateService.isNotNull(reservationId, RESERVATION_ID.getNameParam());
+        return findById(reservationId);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public List<Reservation> findReservationsByEmail(String email) {
+        validateService.validateEmail(email, EMAIL.getNameParam());
+        return reservationRepository.findByEmailOrderByArrivalDate(email);
+    }
 
-    @Transactional
     @Override
     public Reservation create(ReservationRequestDTO reservationDTO) {
-        validateService.isNotNull(reservationDTO, RESERVATION.getNameParam());
-        validateService.isNotEmptyOrNull(reservationDTO.getName(), NAME.getNameParam());
+        return campsiteMetrics.recordBooking(CREATE_OPERATION, () -> retryService.retryOnConflict(CREATE_OPERATION, () -> createReservation(reservationDTO)));
+    }
+
+    private Reservation createReservation(ReservationRequestDTO reservationDTO) {
+        validateService.validateReservationRequest(reservationDTO, minStayDays, maxStayDays, getValidRangeToReserve());
         String emailToCreate = reservationDTO.getEmail();
-        validateService.validateEmail(emailToCreate, EMAIL.getNameParam());
         LocalDate arrivalDateToCreate = reservationDTO.getArrivalDate();
         LocalDate departureDateToCreate = reservationDTO.getDepartureDate();
-        validateStayRangeDays(arrivalDateToCreate, departureDateToCreate, minStayDays, maxStayDays);
-        validateNotAlreadyExistReservation(emailToCreate, arrivalDateToCreate, departureDateToCreate);
 
-        var cache = cacheManager.getCache(CacheConfig.AVAILABILITY_RANGE_DATES_CACHE);
-        if (cache != null) {
-            arrivalDateToCreate.datesUntil(departureDateToCreate.plusDays(1))
-                    .forEach(date -> cache.evict(String.valueOf(date)));
+        if (bookingPipeline.isPresent()) {
+            return bookingPipeline.get().submit(reservationDTO);
         }
-
-        availabilityService.updateAvailability(arrivalDateToCreate, departureDateToCreate, DECREASE_AVAILABILITY);
-        return this.save(mapper(reservationDTO).toReservation());
+        return lockAndExecuteInTransaction(CREATE_OPERATION, LockKeys.availabilityLockKeys(arrivalDateToCreate, departureDateToCreate), () -> {
+            validateNotAlreadyExistReservation(emailToCreate, arrivalDateToCreate, departureDateToCreate);
+            availabilityService.updateAvailability(arrivalDateToCreate, departureDateToCreate, DECREASE_AVAILABILITY);
+            return this.save(mapper(reservationDTO).toReservation());
+        });
     }
 
 
-    @Transactional
     @Override
     public Reservation update(Long reservationId, ReservationUpdateDTO reservationUpdateDTO) {
+        return campsiteMetrics.recordBooking(UPDATE_OPERATION, () -> retryService.retryOnConflict(UPDATE_OPERATION, () -> updateReservation(reservationId, reservationUpdateDTO)));
+    }
+
+    private Reservation updateReservation(Long reservationId, ReservationUpdateDTO reservationUpdateDTO) {
         validateService.isNotNull(reservationUpdateDTO, RESERVATION.getNameParam());
+        Reservation reservationToUpdate = findById(reservationId);
+        validateIsNotCancelled(reservationToUpdate);
+        LocalDate arrivalDateToLock = Objects.requireNonNullElse(reservationUpdateDTO.arrivalDate(), reservationToUpdate.getArrivalDate());
+        LocalDate departureDateToLock = Objects.requireNonNullElse(reservationUpdateDTO.departureDate(), reservationToUpdate.getDepartureDate());
+        validateStayRangeDays(arrivalDateToLock, departureDateToLock, minStayDays, maxStayDays);
+
+        Set<String> lockKeys = new TreeSet<>(LockKeys.availabilityLockKeys(reservationToUpdate.getArrivalDate(), reservationToUpdate.getDepartureDate()));
+        lockKeys.addAll(LockKeys.availabilityLockKeys(arrivalDateToLock, departureDateToLock));
+        return lockAndExecuteInTransaction(UPDATE_OPERATION, lockKeys, () -> doUpdate(reservationId, reservationUpdateDTO));
+    }
+
+    private Reservation doUpdate(Long reservationId, ReservationUpdateDTO reservationUpdateDTO) {
         Reservation reservationFound = findById(reservationId);
         validateIsNotCancelled(reservationFound);
         LocalDate arrivalDateToUpdate = reservationUpdateDTO.arrivalDate();
@@ -179,23 +321,42 @@ public class ReservationServiceImpl implements ReservationService {
         reservationFound.setArrivalDate(arrivalDateToUpdate);
         reservationFound.setDepartureDate(departureDateToUpdate);
         reservationFound.setUpdateDate(Instant.now());
+        reservationCacheService.evictAfterCommit(reservationId);
         return save(reservationFound);
     }
 
-    @Transactional
     @Override
     public void cancel(Long id) {
+        campsiteMetrics.recordBooking(CANCEL_OPERATION, () -> retryService.retryOnConflict(CANCEL_OPERATION, () -> cancelReservation(id)));
+    }
+
+    private Reservation cancelReservation(Long id) {
         Reservation reservationToCancel = findById(id);
-        if (reservationToCancel.isNotCancelled()) {
-            availabilityService.updateAvailability(reservationToCancel.getArrivalDate(), reservationToCancel.getDepartureDate(), INCREASE_AVAILABILITY);
-            reservationToCancel.setCancelDate(Instant.now());
-            reservationRepository.save(reservationToCancel);
-        } else {
+        if (reservationToCancel.isCancelled()) {
             throw BadRequestException.alreadyCancelled(id);
         }
+        return lockAndExecuteInTransaction(CANCEL_OPERATION, LockKeys.availabilityLockKeys(reservationToCancel.getArrivalDate(), reservationToCancel.getDepartureDate()), () -> {
+            Reservation reservationFound = findById(id);
+            if (reservationFound.isCancelled()) {
+                throw BadRequestException.alreadyCancelled(id);
+            }
+            availabilityService.updateAvailability(reservationFound.getArrivalDate(), reservationFound.getDepartureDate(), INCREASE_AVAILABILITY);
+            reservationFound.setCancelDate(Instant.now());
+            reservationCacheService.evictAfterCommit(id);
+            return reservationRepository.save(reservationFound);
+        });
     }
 
 
+    private <T> T lockAndExecuteInTransaction(String operation, Collection<String> lockKeys, Supplier<T> supplier) {
+        try {
+            return lockService.lock(lockKeys, () -> transactionTemplate.execute(status -> supplier.get()), lockTimeoutSeconds);
+        } catch (OptimisticLockingFailureException e) {
+            campsiteMetrics.optimisticLockConflict(operation);
+            throw e;
+        }
+    }
+
     public Reservation save(Reservation reservationToSave) {
         return this.reservationRepository.save(reservationToSave);
     }
@@ -224,7 +385,7 @@ public class ReservationServiceImpl implements ReservationService {
     private void validateNotAlreadyExistReservation(String emailToCreate, LocalDate arrivalDate, LocalDate departureDate) {
         List<Reservation> reservationsFound =
                 this.reservationRepository
-                        .findByEmailAndBetweenDateRangeNotCancelled(emailToCreate, arrivalDate, departureDate);
+                        .findByEmailAndOverlappingDateRangeNotCancelled(emailToCreate, arrivalDate, departureDate, arrivalDate.minusDays(maxStayDays));
 
         if (!reservationsFound.isEmpty()) {
             throw BadRequestException.reservationAlreadyExists(mapper(reservationsFound.get(0)).toReservationDTO());
@@ -233,15 +394,11 @@ public class ReservationServiceImpl implements ReservationService {
 
 
     private void validateStayRangeDays(LocalDate arrivalDate, LocalDate departureDate, int minStayDays, int maxStayDays) {
-        validateService.validateStayRangeDays(arrivalDate, departureDate, minStayDays, maxStayDays);
-        RangeDate<LocalDate> validArrivalDateRange = getValidRangeToReserve();
-        validateService.validateArrivalDate(arrivalDate, departureDate, validArrivalDateRange);
+        validateService.validateStay(arrivalDate, departureDate, minStayDays, maxStayDays, getValidRangeToReserve());
     }
 
     private RangeDate<LocalDate> getValidRangeToReserve() {
-        LocalDate validStartArrivalDate = LocalDate.now().plusDays(minAheadArrivalDays);
-        LocalDate validEndArrivalDate = LocalDate.now().plusDays(maxAheadArrivalDays);
-        return mapper(validStartArrivalDate, validEndArrivalDate).toDateRange();
+        return validateService.getValidArrivalDateRange(minAheadArrivalDays, maxAheadArrivalDays);
     }
 
     @CacheEvict(value = CacheConfig.AVAILABILITY_RANGE_DATES_CACHE, key = "#arrivalDate.toString() + #departureDate.toString()")
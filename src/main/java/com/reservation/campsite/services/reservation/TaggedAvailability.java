@@ -0,0 +1,12 @@
+package com.reservation.campsite.services.reservation;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Weak entity tag of the availability of a date range, or {@code null} when it can not be tagged, and a supplier of
+ * that exact availability, so a caller whose copy is still current never builds it.
+ */
+public record TaggedAvailability(String eTag, Supplier<Map<LocalDate, Boolean>> availability) {
+}
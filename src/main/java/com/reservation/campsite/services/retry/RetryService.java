@@ -0,0 +1,12 @@
+package com.reservation.campsite.services.retry;
+
+import java.util.function.Supplier;
+
+public interface RetryService {
+
+    /**
+     * Runs {@code supplier}, running it again on optimistic locking conflicts until it succeeds or the attempts are
+     * exhausted.
+     */
+    <T> T retryOnConflict(String operation, Supplier<T> supplier);
+}
@@ -0,0 +1,78 @@
+package com.reservation.campsite.services.retry;
+
+import com.reservation.campsite.exception.ConflictException;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Retries operations that failed on a {@code @Version} conflict, with exponential backoff and full jitter: before
+ * attempt {@code n + 1} it sleeps a random time between zero and {@code initialBackoff * 2^(n - 1)}, capped at
+ * {@code maxBackoff}, so the writers that collided do not collide again on the next attempt.
+ * <p>
+ * The supplier must run the whole operation, locks and transaction included, so every attempt re-reads the rows it
+ * changes and the locks are not held while backing off. Once the attempts are exhausted a
+ * {@link ConflictException} is thrown instead of the conflict.
+ */
+@Service
+@Slf4j
+public class RetryServiceImpl implements RetryService {
+
+    private final CampsiteMetrics campsiteMetrics;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    public RetryServiceImpl(
+            CampsiteMetrics campsiteMetrics,
+            @Value("${campsite.retry.max-attempts:4}") int maxAttempts,
+            @Value("${campsite.retry.initial-backoff-millis:20}") long initialBackoffMillis,
+            @Value("${campsite.retry.max-backoff-millis:500}") long maxBackoffMillis
+    ) {
+        this.campsiteMetrics = campsiteMetrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(0, initialBackoffMillis);
+        this.maxBackoffMillis = Math.max(this.initialBackoffMillis, maxBackoffMillis);
+    }
+
+    @Override
+    public <T> T retryOnConflict(String operation, Supplier<T> supplier) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return supplier.get();
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("Giving up {} after {} optimistic locking conflicts: {}", operation, attempt, e.getMessage());
+                    campsiteMetrics.optimisticLockExhausted(operation);
+                    throw ConflictException.concurrentModification(operation, attempt);
+                }
+                if (log.isDebugEnabled()) {
+                    log.debug("Retrying {} after optimistic locking conflict {}: {}", operation, attempt, e.getMessage());
+                }
+                campsiteMetrics.optimisticLockRetry(operation, attempt);
+                backOff(operation, attempt);
+            }
+        }
+    }
+
+    private void backOff(String operation, int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 30));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ConflictException.concurrentModification(operation, attempt);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.reservation.campsite.services.validation;
 
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.util.RangeDate;
 import jakarta.validation.constraints.NotNull;
 
@@ -16,4 +17,10 @@ public interface ValidateService {
         void validateArrivalDate(LocalDate arrivalDate, LocalDate departureDate, RangeDate<LocalDate> validArrivalDateRange);
 
         void validateEmail(String email, String paramName);
+
+        void validateStay(LocalDate arrivalDate, LocalDate departureDate, int minStayDays, int maxStayDays, RangeDate<LocalDate> validArrivalDateRange);
+
+        void validateReservationRequest(ReservationRequestDTO request, int minStayDays, int maxStayDays, RangeDate<LocalDate> validArrivalDateRange);
+
+        RangeDate<LocalDate> getValidArrivalDateRange(int minAheadArrivalDays, int maxAheadArrivalDays);
 }
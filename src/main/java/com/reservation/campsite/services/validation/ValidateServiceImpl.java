@@ -1,5 +1,6 @@
 package com.reservation.campsite.services.validation;
 
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.exception.BadRequestException;
 import com.reservation.campsite.util.ParamName;
 import com.reservation.campsite.util.RangeDate;
@@ -9,6 +10,8 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 
+import static com.reservation.campsite.mapper.Mapper.mapper;
+
 @Service
 public class ValidateServiceImpl implements ValidateService {
 
@@ -78,4 +81,24 @@ public class ValidateServiceImpl implements ValidateService {
             throw BadRequestException.invalidEmail(email);
         }
     }
+
+    @Override
+    public void validateStay(LocalDate arrivalDate, LocalDate departureDate, int minStayDays, int maxStayDays, RangeDate<LocalDate> validArrivalDateRange) {
+        validateStayRangeDays(arrivalDate, departureDate, minStayDays, maxStayDays);
+        validateArrivalDate(arrivalDate, departureDate, validArrivalDateRange);
+    }
+
+    @Override
+    public void validateReservationRequest(ReservationRequestDTO request, int minStayDays, int maxStayDays, RangeDate<LocalDate> validArrivalDateRange) {
+        isNotNull(request, ParamName.RESERVATION.getNameParam());
+        isNotEmptyOrNull(request.getName(), ParamName.NAME.getNameParam());
+        validateEmail(request.getEmail(), ParamName.EMAIL.getNameParam());
+        validateStay(request.getArrivalDate(), request.getDepartureDate(), minStayDays, maxStayDays, validArrivalDateRange);
+    }
+
+    @Override
+    public RangeDate<LocalDate> getValidArrivalDateRange(int minAheadArrivalDays, int maxAheadArrivalDays) {
+        LocalDate today = LocalDate.now();
+        return mapper(today.plusDays(minAheadArrivalDays), today.plusDays(maxAheadArrivalDays)).toDateRange();
+    }
 }
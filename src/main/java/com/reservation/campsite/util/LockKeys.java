@@ -0,0 +1,29 @@
+package com.reservation.campsite.util;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Lock keys shared by every path that changes the availability, so the single and batch booking paths serialize on
+ * the same dates.
+ */
+public final class LockKeys {
+
+    private static final String AVAILABILITY_PREFIX = "availability:";
+
+    private LockKeys() {
+    }
+
+    public static String availabilityLockKey(LocalDate date) {
+        return AVAILABILITY_PREFIX + date;
+    }
+
+    /**
+     * One key per date from the arrival date to the departure date, both inclusive, in date order.
+     */
+    public static List<String> availabilityLockKeys(LocalDate arrivalDate, LocalDate departureDate) {
+        return arrivalDate.datesUntil(departureDate.plusDays(1))
+                .map(LockKeys::availabilityLockKey)
+                .toList();
+    }
+}
@@ -3,12 +3,15 @@ package com.reservation.campsite.util;
 public enum ParamName {
     ARRIVAL("arrival"),
     ARRIVAL_DATE("arrivalDate"),
+    ARRIVAL_FROM("arrivalFrom"),
+    ARRIVAL_TO("arrivalTo"),
     DEPARTURE("departure"),
     DEPARTURE_DATE("departureDate"),
     EMAIL("email"),
     NAME("name"),
     RESERVATION("reservation"),
     RESERVATION_ID("reservationId"),
+    RESERVATIONS("reservations"),
     RESPONSE_ERROR( "error");
 
     private final String nameParam;
@@ -0,0 +1,15 @@
+-- Index of the duplicate reservation check. Databases created by schema.sql may already have it, and MySQL has no
+-- "create index if not exists", so it is only created when missing.
+set @index_count = (select count(*)
+                    from information_schema.statistics
+                    where table_schema = database()
+                      and table_name = 'reservation'
+                      and index_name = 'reservation_overlap_index');
+
+set @index_ddl = if(@index_count = 0,
+                    'create index reservation_overlap_index on reservation (email, cancel_date, arrival_date, departure_date)',
+                    'do 0');
+
+prepare index_statement from @index_ddl;
+execute index_statement;
+deallocate prepare index_statement;
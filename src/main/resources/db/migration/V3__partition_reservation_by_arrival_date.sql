@@ -0,0 +1,18 @@
+-- Range partitions of reservation by arrival date. MySQL requires the partitioning column in every unique key, so the
+-- primary key becomes (id, arrival_date), which no longer enforces a unique id on its own. Ids are unique because each
+-- node assigns them from its own snowflake sequence, which requires a distinct CAMPSITE_NODE_ID on every node.
+alter table reservation
+    drop primary key,
+    add primary key (id, arrival_date);
+
+-- Everything before the current month goes to p_history and the rest to p_future, which
+-- ReservationPartitionMaintainer splits into monthly partitions ahead of the booking window. Partition bounds must be
+-- literals, hence the prepared statement.
+set @partition_ddl = concat(
+        'alter table reservation partition by range columns (arrival_date) (',
+        'partition p_history values less than (''', date_format(current_date, '%Y-%m-01'), '''), ',
+        'partition p_future values less than (maxvalue))');
+
+prepare partition_statement from @partition_ddl;
+execute partition_statement;
+deallocate prepare partition_statement;
@@ -0,0 +1,14 @@
+create table if not exists reservation_archive
+(
+    id             bigint       not null primary key,
+    name           varchar(100) not null,
+    email          varchar(50)  not null,
+    arrival_date   date         not null,
+    departure_date date         not null,
+    create_date    datetime     not null,
+    update_date    datetime     null,
+    cancel_date    datetime     null,
+    version        int          not null default 0,
+    archive_date   datetime     not null,
+    index reservation_archive_email_index (email, arrival_date)
+) comment 'Contains past and cancelled campsite reservations moved out of reservation';
@@ -0,0 +1,15 @@
+-- Index of the arrival listings, which page and stream reservations by (arrival_date, id). Databases created by
+-- schema.sql may already have it, so it is only created when missing.
+set @index_count = (select count(*)
+                    from information_schema.statistics
+                    where table_schema = database()
+                      and table_name = 'reservation'
+                      and index_name = 'reservation_arrival_index');
+
+set @index_ddl = if(@index_count = 0,
+                    'create index reservation_arrival_index on reservation (arrival_date, id)',
+                    'do 0');
+
+prepare index_statement from @index_ddl;
+execute index_statement;
+deallocate prepare index_statement;
@@ -0,0 +1,171 @@
+package com.reservation.campsite.configuration;
+
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+class ReplicaRoutingDataSourceUnitTest {
+
+    private final DataSource primary = Mockito.mock(DataSource.class);
+
+    private final DataSource replica = Mockito.mock(DataSource.class);
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void givenReadOnlyTransactionWhenDetermineLookupKeyThenRouteToReplica() {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(0);
+
+        // WHEN
+        startTransaction(true);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo("replica-0");
+    }
+
+    @Test
+    void givenReadWriteTransactionWhenDetermineLookupKeyThenRouteToPrimary() {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(0);
+
+        // WHEN
+        startTransaction(false);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void givenRecentlyCommittedWriteWhenDetermineLookupKeyForReadThenRouteToPrimary() {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(60000);
+        startTransaction(false);
+        dataSource.determineCurrentLookupKey();
+        commitTransaction();
+
+        // WHEN
+        startTransaction(true);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void givenWriteNotCommittedYetWhenDetermineLookupKeyForReadThenRouteToReplica() {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(60000);
+        startTransaction(false);
+        dataSource.determineCurrentLookupKey();
+
+        // WHEN
+        startTransaction(true);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo("replica-0");
+    }
+
+    @Test
+    void givenReadPinnedToPrimaryWhenDetermineLookupKeyThenRouteToPrimary() {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(0);
+
+        // WHEN
+        startTransaction(true);
+        Object key = ReplicaRoutingDataSource.onPrimary(dataSource::determineCurrentLookupKey);
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        Assertions.assertThat(dataSource.determineCurrentLookupKey()).isEqualTo("replica-0");
+    }
+
+    @Test
+    void givenLaggingReplicaWhenCheckReplicasThenReadsRouteToPrimary() throws SQLException {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(0);
+        Connection connection = Mockito.mock(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+
+        // WHEN
+        Mockito.when(replica.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(30L);
+        dataSource.checkReplicas();
+        startTransaction(true);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    void givenUnreachableReplicaBackWhenCheckReplicasThenReadsRouteToReplica() throws SQLException {
+        // GIVEN
+        ReplicaRoutingDataSource dataSource = getReplicaRoutingDataSource(0);
+        Connection connection = Mockito.mock(Connection.class);
+        Statement statement = Mockito.mock(Statement.class);
+        ResultSet resultSet = Mockito.mock(ResultSet.class);
+        Mockito.when(replica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        dataSource.checkReplicas();
+
+        // WHEN
+        Mockito.reset(replica);
+        Mockito.when(replica.getConnection()).thenReturn(connection);
+        Mockito.when(connection.createStatement()).thenReturn(statement);
+        Mockito.when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        Mockito.when(resultSet.next()).thenReturn(true);
+        Mockito.when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(1L);
+        dataSource.checkReplicas();
+        startTransaction(true);
+        Object key = dataSource.determineCurrentLookupKey();
+
+        // THEN
+        Assertions.assertThat(key).isEqualTo("replica-0");
+    }
+
+    private void startTransaction(boolean readOnly) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.initSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void commitTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private ReplicaRoutingDataSource getReplicaRoutingDataSource(long stalenessMillis) {
+        return new ReplicaRoutingDataSource(primary, List.of(replica), stalenessMillis, 5,
+                new CampsiteMetrics(new SimpleMeterRegistry()));
+    }
+}
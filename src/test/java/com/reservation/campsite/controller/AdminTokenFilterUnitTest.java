@@ -0,0 +1,82 @@
+package com.reservation.campsite.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+@SpringBootTest
+class AdminTokenFilterUnitTest {
+
+    private static final String TOKEN = "0123456789abcdef0123456789abcdef";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void givenValidTokenWhenFilterAdminRequestThenProceed() throws Exception {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/admin/reservations");
+        request.addHeader(AdminTokenFilter.ADMIN_TOKEN_HEADER, TOKEN);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // WHEN
+        getAdminTokenFilter(TOKEN).doFilter(request, response, filterChain);
+
+        // THEN
+        Assertions.assertThat(filterChain.getRequest()).isSameAs(request);
+        Assertions.assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void givenMissingOrInvalidTokenWhenFilterAdminRequestThenUnauthorized() throws Exception {
+        // GIVEN
+        MockHttpServletRequest missing = new MockHttpServletRequest("GET", "/admin/reservations/export");
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/admin/reservations");
+        invalid.addHeader(AdminTokenFilter.ADMIN_TOKEN_HEADER, TOKEN.toUpperCase());
+        AdminTokenFilter filter = getAdminTokenFilter(TOKEN);
+
+        for (MockHttpServletRequest request : new MockHttpServletRequest[]{missing, invalid}) {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            MockFilterChain filterChain = new MockFilterChain();
+
+            // WHEN
+            filter.doFilter(request, response, filterChain);
+
+            // THEN
+            Assertions.assertThat(filterChain.getRequest()).isNull();
+            Assertions.assertThat(response.getStatus()).isEqualTo(401);
+            Assertions.assertThat(response.getContentAsString()).contains("Invalid admin token");
+        }
+    }
+
+    @Test
+    void givenNonAdminRequestWithoutTokenWhenFilterThenProceed() throws Exception {
+        // GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations/1");
+        MockFilterChain filterChain = new MockFilterChain();
+
+        // WHEN
+        getAdminTokenFilter(TOKEN).doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // THEN
+        Assertions.assertThat(filterChain.getRequest()).isSameAs(request);
+    }
+
+    @Test
+    void givenShortTokenWhenCreateThenFail() {
+        // THEN
+        Assertions.assertThatThrownBy(() -> getAdminTokenFilter("secret"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("campsite.admin.token");
+    }
+
+    private AdminTokenFilter getAdminTokenFilter(String token) {
+        return new AdminTokenFilter(token, new ControllerAdviseHandler(), objectMapper);
+    }
+}
@@ -0,0 +1,72 @@
+package com.reservation.campsite.controller;
+
+import com.reservation.campsite.services.events.AvailabilityEventService;
+import com.reservation.campsite.services.reservation.ReservationBatchService;
+import com.reservation.campsite.services.reservation.ReservationService;
+import com.reservation.campsite.services.reservation.TaggedAvailability;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class ReservationControllerUnitTest {
+
+    private static final String E_TAG = "W/\"4e2a-4e2c-3-5\"";
+
+    private final ReservationService reservationService = Mockito.mock(ReservationService.class);
+
+    private final ReservationController reservationController = new ReservationController(reservationService,
+            Mockito.mock(ReservationBatchService.class), Mockito.mock(AvailabilityEventService.class));
+
+    @Test
+    void givenMatchingIfNoneMatchWhenGetAvailabilityThenNotModifiedWithoutBuildingTheAvailability() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = arrivalDate.plusDays(2);
+        AtomicInteger builds = new AtomicInteger();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations/availability");
+        request.addHeader("If-None-Match", E_TAG);
+
+        // WHEN
+        Mockito.when(reservationService.findTaggedAvailability(arrivalDate, departureDate))
+                .thenReturn(new TaggedAvailability(E_TAG, () -> Map.of(arrivalDate, builds.incrementAndGet() > 0)));
+        ResponseEntity<Map<LocalDate, Boolean>> response = reservationController.getAvailability(arrivalDate, departureDate,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        // THEN
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(E_TAG);
+        Assertions.assertThat(response.getBody()).isNull();
+        Assertions.assertThat(builds).hasValue(0);
+    }
+
+    @Test
+    void givenOtherIfNoneMatchWhenGetAvailabilityThenAvailabilityWithETag() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = arrivalDate.plusDays(2);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/reservations/availability");
+        request.addHeader("If-None-Match", "W/\"4e2a-4e2c-3-4\"");
+
+        // WHEN
+        Mockito.when(reservationService.findTaggedAvailability(arrivalDate, departureDate))
+                .thenReturn(new TaggedAvailability(E_TAG, () -> Map.of(arrivalDate, true)));
+        ResponseEntity<Map<LocalDate, Boolean>> response = reservationController.getAvailability(arrivalDate, departureDate,
+                new ServletWebRequest(request, new MockHttpServletResponse()));
+
+        // THEN
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(E_TAG);
+        Assertions.assertThat(response.getBody()).containsExactlyEntriesOf(Map.of(arrivalDate, true));
+    }
+}
@@ -0,0 +1,68 @@
+package com.reservation.campsite.persistence.id;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+class SnowflakeIdSequenceTest {
+
+    @Test
+    void givenSequenceWhenNextIdThenIdsAreIncreasingAndCarryTheNodeId() {
+        // GIVEN
+        SnowflakeIdSequence sequence = SnowflakeIdSequence.forNode(7);
+        long previous = 0;
+
+        // THEN
+        for (int i = 0; i < 10_000; i++) {
+            long id = sequence.nextId();
+            Assertions.assertThat(id).isGreaterThan(previous);
+            Assertions.assertThat(SnowflakeIdSequence.nodeIdOf(id)).isEqualTo(7);
+            previous = id;
+        }
+    }
+
+    @Test
+    void givenConcurrentCallersWhenNextIdThenIdsAreUnique() {
+        // GIVEN
+        SnowflakeIdSequence sequence = SnowflakeIdSequence.forNode(8);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        // WHEN
+        IntStream.range(0, 50_000).parallel().forEach(i -> ids.add(sequence.nextId()));
+
+        // THEN
+        Assertions.assertThat(ids).hasSize(50_000);
+    }
+
+    @Test
+    void givenDifferentNodesWhenNextIdThenIdsNeverCollide() {
+        // GIVEN
+        SnowflakeIdSequence first = SnowflakeIdSequence.forNode(9);
+        SnowflakeIdSequence second = SnowflakeIdSequence.forNode(10);
+        Set<Long> ids = new HashSet<>();
+
+        // WHEN
+        for (int i = 0; i < 5_000; i++) {
+            ids.add(first.nextId());
+            ids.add(second.nextId());
+        }
+
+        // THEN
+        Assertions.assertThat(ids).hasSize(10_000);
+        Assertions.assertThat(SnowflakeIdSequence.forNode(9)).isSameAs(first);
+        Assertions.assertThatThrownBy(() -> SnowflakeIdSequence.forNode(SnowflakeIdSequence.MAX_NODE_ID + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void givenNoNodeIdWhenForNodeThenFail() {
+        // THEN
+        Assertions.assertThatThrownBy(() -> SnowflakeIdSequence.forNode(-1))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("campsite.id.node-id");
+    }
+}
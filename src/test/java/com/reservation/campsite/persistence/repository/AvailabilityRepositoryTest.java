@@ -1,16 +1,23 @@
 package com.reservation.campsite.persistence.repository;
 
 import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
 import jakarta.transaction.Transactional;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.time.LocalDate;
+import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 @DataJpaTest
 @DirtiesContext
@@ -19,6 +26,9 @@ class AvailabilityRepositoryTest {
     @Autowired
     private AvailabilityRepository availabilityRepository;
 
+    @Autowired
+    private TestEntityManager entityManager;
+
     @Test
     @Transactional(value = Transactional.TxType.NEVER)
     void shouldThrowAnOptimisticLockingException() {
@@ -41,5 +51,98 @@ class AvailabilityRepositoryTest {
         }).isInstanceOf(ObjectOptimisticLockingFailureException.class);
 
     }
-}
 
+    @Test
+    @Transactional(value = Transactional.TxType.REQUIRED)
+    void shouldIncrementAvailabilityOnlyWhenItDoesNotGoBelowZero() {
+        LocalDate arrivalDate = LocalDate.now().plusDays(10);
+        availabilityRepository.saveAll(List.of(
+                Availability.builder().date(arrivalDate).available(1).availableTotal(10).build(),
+                Availability.builder().date(arrivalDate.plusDays(1)).available(0).availableTotal(10).build(),
+                Availability.builder().date(arrivalDate.plusDays(2)).available(5).availableTotal(10).build()
+        ));
+
+        int updated = availabilityRepository.incrementAvailability(arrivalDate, arrivalDate.plusDays(2), -1);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, arrivalDate.plusDays(2)))
+                .extracting(Availability::getAvailable)
+                .containsExactly(0, 0, 4);
+    }
+
+    @Test
+    @Transactional(value = Transactional.TxType.REQUIRED)
+    void shouldIncrementAvailabilityOnlyForTheGivenDates() {
+        LocalDate arrivalDate = LocalDate.now().plusDays(20);
+        availabilityRepository.saveAll(List.of(
+                Availability.builder().date(arrivalDate).available(2).availableTotal(10).build(),
+                Availability.builder().date(arrivalDate.plusDays(1)).available(2).availableTotal(10).build(),
+                Availability.builder().date(arrivalDate.plusDays(2)).available(1).availableTotal(10).build()
+        ));
+
+        int updated = availabilityRepository.incrementAvailabilityByDates(List.of(arrivalDate, arrivalDate.plusDays(2)), -2);
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, arrivalDate.plusDays(2)))
+                .extracting(Availability::getAvailable)
+                .containsExactly(0, 2, 1);
+    }
+
+    @Test
+    @Transactional(value = Transactional.TxType.REQUIRED)
+    void shouldReadAvailabilityDaysBetweenInDateOrderWithoutManagingEntities() {
+        LocalDate date = LocalDate.now().plusDays(40);
+        availabilityRepository.saveAll(List.of(
+                Availability.builder().date(date.plusDays(2)).available(0).availableTotal(10).build(),
+                Availability.builder().date(date).available(4).availableTotal(10).build(),
+                Availability.builder().date(date.plusDays(1)).available(7).availableTotal(10).build()
+        ));
+        entityManager.flush();
+        entityManager.clear();
+
+        List<AvailabilityDay> days = availabilityRepository.findAvailabilityDaysBetween(date, date.plusDays(2));
+        List<AvailabilityDay> page = availabilityRepository.findAvailabilityDaysBetween(date, date.plusDays(2), Limit.of(2));
+
+        assertThat(days)
+                .extracting(AvailabilityDay::date, AvailabilityDay::available)
+                .containsExactly(tuple(date, 4), tuple(date.plusDays(1), 7), tuple(date.plusDays(2), 0));
+        assertThat(page)
+                .extracting(AvailabilityDay::date)
+                .containsExactly(date, date.plusDays(1));
+        assertThat(entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount()).isZero();
+    }
+
+    @Test
+    @Transactional(value = Transactional.TxType.REQUIRED)
+    void shouldReadAvailabilityDaysUpdatedInTheSameTransaction() {
+        LocalDate date = LocalDate.now().plusDays(30);
+        availabilityRepository.saveAll(List.of(
+                Availability.builder().date(date).available(3).availableTotal(10).build(),
+                Availability.builder().date(date.plusDays(1)).available(3).availableTotal(10).build()
+        ));
+        availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(date, date.plusDays(1));
+
+        availabilityRepository.incrementAvailabilityByDates(List.of(date), -1);
+
+        assertThat(availabilityRepository.findAvailabilityDaysByDates(List.of(date, date.plusDays(1), date.plusDays(2))))
+                .extracting(AvailabilityDay::date, AvailabilityDay::available)
+                .containsExactlyInAnyOrder(tuple(date, 2), tuple(date.plusDays(1), 3));
+    }
+
+    @Test
+    @Transactional(value = Transactional.TxType.REQUIRED)
+    void shouldInsertAllMissingDatesWithTheGivenCapacity() {
+        LocalDate date = LocalDate.now().plusDays(500);
+        availabilityRepository.save(Availability.builder().date(date.plusDays(1)).available(3).availableTotal(10).build());
+        List<LocalDate> existing = availabilityRepository.findDatesBetween(date, date.plusDays(2));
+
+        availabilityRepository.insertAll(List.of(date, date.plusDays(2)), 50);
+
+        assertThat(existing).containsExactly(date.plusDays(1));
+        assertThat(availabilityRepository.findAvailabilityDaysBetween(date, date.plusDays(2)))
+                .extracting(AvailabilityDay::date, AvailabilityDay::available, AvailabilityDay::version)
+                .containsExactly(tuple(date, 50, 0), tuple(date.plusDays(1), 3, 0), tuple(date.plusDays(2), 50, 0));
+    }
+}
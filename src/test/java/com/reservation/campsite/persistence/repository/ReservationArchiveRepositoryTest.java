@@ -0,0 +1,88 @@
+package com.reservation.campsite.persistence.repository;
+
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.entity.ReservationArchive;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@DirtiesContext
+class ReservationArchiveRepositoryTest {
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservationArchiveRepository reservationArchiveRepository;
+
+    @Test
+    void shouldMoveDepartedAndCancelledReservationsToTheArchive() {
+        LocalDate today = LocalDate.now();
+        Reservation departed = reservationRepository.save(getReservation("departed@test.com", today.minusDays(40), today.minusDays(38), null));
+        Reservation cancelled = reservationRepository.save(getReservation("cancelled@test.com", today.plusDays(5), today.plusDays(6), Instant.now().minus(40, ChronoUnit.DAYS)));
+        Reservation active = reservationRepository.save(getReservation("active@test.com", today.plusDays(5), today.plusDays(6), null));
+        reservationRepository.save(getReservation("recent@test.com", today.minusDays(3), today.minusDays(1), null));
+        LocalDate departedBefore = today.minusDays(30);
+        Instant cancelledBefore = Instant.now().minus(30, ChronoUnit.DAYS);
+
+        List<Long> departedIds = reservationRepository.findDepartedIdsToArchive(departedBefore, Limit.of(10));
+        List<Long> cancelledIds = reservationRepository.findCancelledIdsToArchive(departedBefore, today.plusDays(32), cancelledBefore, Limit.of(10));
+        List<Long> ids = List.of(departedIds.get(0), cancelledIds.get(0));
+        int copied = reservationArchiveRepository.copyFromReservations(ids, Instant.now());
+        int deleted = reservationRepository.deleteAllByIdIn(ids);
+
+        Assertions.assertThat(departedIds).containsExactly(departed.getId());
+        Assertions.assertThat(cancelledIds).containsExactly(cancelled.getId());
+        Assertions.assertThat(copied).isEqualTo(2);
+        Assertions.assertThat(deleted).isEqualTo(2);
+        Assertions.assertThat(reservationRepository.findById(departed.getId())).isEmpty();
+        Assertions.assertThat(reservationRepository.findById(active.getId())).isPresent();
+        Assertions.assertThat(reservationArchiveRepository.findById(cancelled.getId()))
+                .isPresent()
+                .get()
+                .extracting(ReservationArchive::getEmail, ReservationArchive::getArrivalDate)
+                .containsExactly("cancelled@test.com", today.plusDays(5));
+    }
+
+    @Test
+    void shouldBoundTheReservationsToArchiveByArrivalDate() {
+        LocalDate today = LocalDate.now();
+        Instant longAgo = Instant.now().minus(40, ChronoUnit.DAYS);
+        Reservation departedFirst = reservationRepository.save(getReservation("first@test.com", today.minusDays(60), today.minusDays(58), null));
+        Reservation departedCancelled = reservationRepository.save(getReservation("departed-cancelled@test.com", today.minusDays(50), today.minusDays(49), longAgo));
+        reservationRepository.save(getReservation("staying@test.com", today.minusDays(31), today.minusDays(29), null));
+        Reservation cancelled = reservationRepository.save(getReservation("cancelled@test.com", today.minusDays(10), today.minusDays(8), longAgo));
+        reservationRepository.save(getReservation("recently-cancelled@test.com", today.plusDays(2), today.plusDays(3), Instant.now()));
+        reservationRepository.save(getReservation("beyond-window@test.com", today.plusDays(40), today.plusDays(41), longAgo));
+        LocalDate departedBefore = today.minusDays(30);
+        Instant cancelledBefore = Instant.now().minus(30, ChronoUnit.DAYS);
+
+        List<Long> departedIds = reservationRepository.findDepartedIdsToArchive(departedBefore, Limit.of(10));
+        List<Long> cancelledIds = reservationRepository.findCancelledIdsToArchive(departedBefore, today.plusDays(32), cancelledBefore, Limit.of(10));
+        List<Long> firstDepartedIds = reservationRepository.findDepartedIdsToArchive(departedBefore, Limit.of(1));
+
+        Assertions.assertThat(departedIds).containsExactly(departedFirst.getId(), departedCancelled.getId());
+        Assertions.assertThat(cancelledIds).containsExactly(cancelled.getId());
+        Assertions.assertThat(firstDepartedIds).containsExactly(departedFirst.getId());
+    }
+
+    private static Reservation getReservation(String email, LocalDate arrivalDate, LocalDate departureDate, Instant cancelDate) {
+        return Reservation.builder()
+                .name("Archive")
+                .email(email)
+                .arrivalDate(arrivalDate)
+                .departureDate(departureDate)
+                .createdDate(Instant.now())
+                .cancelDate(cancelDate)
+                .build();
+    }
+}
@@ -1,16 +1,21 @@
 package com.reservation.campsite.persistence.repository;
 
 import com.reservation.campsite.persistence.entity.Reservation;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.annotation.DirtiesContext;
 
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 @DataJpaTest
 @DirtiesContext
@@ -19,6 +24,9 @@ class ReservationRepositoryTest {
     @Autowired
     private ReservationRepository reservationRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     @Test
     @Transactional(value = Transactional.TxType.NEVER)
     void shouldThrowAnOptimisticLockingException() {
@@ -46,5 +54,159 @@ class ReservationRepositoryTest {
         }).isInstanceOf(ObjectOptimisticLockingFailureException.class);
 
     }
-}
 
+    @Test
+    @Transactional(value = Transactional.TxType.NEVER)
+    void shouldKeepReservationsInTheSecondLevelCache() {
+        Reservation reservation = Reservation.builder()
+                .name("Cached")
+                .email("cached@test.com")
+                .arrivalDate(LocalDate.now().plusDays(1))
+                .departureDate(LocalDate.now().plusDays(2))
+                .createdDate(Instant.now())
+                .build();
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+
+        Long id = reservationRepository.save(reservation).getId();
+        Reservation found = reservationRepository.findById(id).orElseThrow();
+        found.setName("Cached Updated");
+        reservationRepository.save(found);
+
+        Assertions.assertThat(cache.contains(Reservation.class, id)).isTrue();
+        Assertions.assertThat(reservationRepository.findById(id))
+                .get()
+                .extracting(Reservation::getName)
+                .isEqualTo("Cached Updated");
+
+        cache.evict(Reservation.class, id);
+        Assertions.assertThat(cache.contains(Reservation.class, id)).isFalse();
+    }
+
+    @Test
+    void shouldFindReservationsByEmailOrderedByArrivalDate() {
+        LocalDate arrivalDate = LocalDate.now().plusDays(5);
+        reservationRepository.saveAll(List.of(
+                Reservation.builder().name("Later").email("lookup@test.com")
+                        .arrivalDate(arrivalDate.plusDays(3)).departureDate(arrivalDate.plusDays(4)).createdDate(Instant.now()).build(),
+                Reservation.builder().name("Sooner").email("lookup@test.com")
+                        .arrivalDate(arrivalDate).departureDate(arrivalDate.plusDays(1)).createdDate(Instant.now()).cancelDate(Instant.now()).build(),
+                Reservation.builder().name("Other").email("other@test.com")
+                        .arrivalDate(arrivalDate).departureDate(arrivalDate.plusDays(1)).createdDate(Instant.now()).build()
+        ));
+
+        Assertions.assertThat(reservationRepository.findByEmailOrderByArrivalDate("lookup@test.com"))
+                .extracting(Reservation::getName)
+                .containsExactly("Sooner", "Later");
+    }
+
+    @Test
+    void shouldInsertAllReservationsAndSetGeneratedIds() {
+        List<Reservation> reservations = List.of(
+                Reservation.builder()
+                        .name("Batch One")
+                        .email("batch1@test.com")
+                        .arrivalDate(LocalDate.now().plusDays(1))
+                        .departureDate(LocalDate.now().plusDays(2))
+                        .createdDate(Instant.now())
+                        .build(),
+                Reservation.builder()
+                        .name("Batch Two")
+                        .email("batch2@test.com")
+                        .arrivalDate(LocalDate.now().plusDays(3))
+                        .departureDate(LocalDate.now().plusDays(4))
+                        .createdDate(Instant.now())
+                        .build());
+
+        List<Reservation> inserted = reservationRepository.insertAll(reservations);
+
+        Assertions.assertThat(inserted)
+                .hasSize(2)
+                .allSatisfy(reservation -> Assertions.assertThat(reservation.getId()).isNotNull());
+        Assertions.assertThat(reservationRepository.findById(inserted.get(1).getId()))
+                .isPresent()
+                .get()
+                .extracting(Reservation::getEmail, Reservation::getCancelDate)
+                .containsExactly("batch2@test.com", null);
+    }
+
+    @Test
+    void shouldFindActiveReservationsOverlappingTheDateRange() {
+        LocalDate arrivalDate = LocalDate.now().plusDays(10);
+        Reservation startingInside = reservationRepository.save(getReservation("overlap@test.com", arrivalDate.plusDays(2), arrivalDate.plusDays(4), null));
+        Reservation endingInside = reservationRepository.save(getReservation("overlap@test.com", arrivalDate.minusDays(2), arrivalDate, null));
+        reservationRepository.save(getReservation("overlap@test.com", arrivalDate.plusDays(1), arrivalDate.plusDays(2), Instant.now()));
+        reservationRepository.save(getReservation("overlap@test.com", arrivalDate.plusDays(4), arrivalDate.plusDays(5), null));
+        reservationRepository.save(getReservation("other@test.com", arrivalDate, arrivalDate.plusDays(2), null));
+
+        List<Reservation> found = reservationRepository.findByEmailAndOverlappingDateRangeNotCancelled("overlap@test.com", arrivalDate, arrivalDate.plusDays(2), arrivalDate.minusDays(3));
+
+        Assertions.assertThat(found)
+                .extracting(Reservation::getId)
+                .containsExactlyInAnyOrder(startingInside.getId(), endingInside.getId());
+    }
+
+    @Test
+    void shouldUseTheOverlapIndexToFindOverlappingReservations() {
+        String plan = String.valueOf(entityManager.createNativeQuery("""
+                        EXPLAIN SELECT r.id FROM reservation r
+                        WHERE r.email = 'overlap@test.com' AND r.cancel_date IS NULL
+                        AND r.arrival_date BETWEEN DATE '2029-12-29' AND DATE '2030-01-03' AND r.departure_date >= DATE '2030-01-01'
+                        """)
+                .getSingleResult());
+
+        Assertions.assertThat(plan).containsIgnoringCase("reservation_overlap_index");
+    }
+
+    @Test
+    void shouldPageReservationsArrivingInTheRangeByArrivalDateAndId() {
+        LocalDate arrivalDate = LocalDate.now().plusYears(5);
+        Reservation first = reservationRepository.save(getReservation("arrival1@test.com", arrivalDate, arrivalDate.plusDays(1), null));
+        Reservation second = reservationRepository.save(getReservation("arrival2@test.com", arrivalDate, arrivalDate.plusDays(2), Instant.now()));
+        Reservation third = reservationRepository.save(getReservation("arrival3@test.com", arrivalDate.plusDays(1), arrivalDate.plusDays(2), null));
+        reservationRepository.save(getReservation("arrival4@test.com", arrivalDate.plusDays(2), arrivalDate.plusDays(3), null));
+
+        List<Reservation> firstPage = reservationRepository.findArrivingAfter(arrivalDate, arrivalDate.plusDays(1),
+                arrivalDate, Long.MIN_VALUE, Limit.of(2));
+        List<Reservation> secondPage = reservationRepository.findArrivingAfter(arrivalDate, arrivalDate.plusDays(1),
+                second.getArrivalDate(), second.getId(), Limit.of(2));
+
+        Assertions.assertThat(firstPage)
+                .extracting(Reservation::getId)
+                .containsExactly(first.getId(), second.getId());
+        Assertions.assertThat(secondPage)
+                .extracting(Reservation::getId)
+                .containsExactly(third.getId());
+    }
+
+    @Test
+    void shouldStreamReservationsArrivingInTheRangeByArrivalDateAndId() {
+        LocalDate arrivalDate = LocalDate.now().plusYears(6);
+        Reservation later = reservationRepository.save(getReservation("stream1@test.com", arrivalDate.plusDays(1), arrivalDate.plusDays(2), null));
+        Reservation sooner = reservationRepository.save(getReservation("stream2@test.com", arrivalDate, arrivalDate.plusDays(1), Instant.now()));
+        reservationRepository.save(getReservation("stream3@test.com", arrivalDate.plusDays(2), arrivalDate.plusDays(3), null));
+        entityManager.flush();
+        entityManager.clear();
+        List<Reservation> streamed = new ArrayList<>();
+
+        reservationRepository.streamArriving(arrivalDate, arrivalDate.plusDays(1), streamed::add);
+
+        Assertions.assertThat(streamed)
+                .extracting(Reservation::getId, Reservation::getEmail, Reservation::getArrivalDate)
+                .containsExactly(
+                        Assertions.tuple(sooner.getId(), "stream2@test.com", arrivalDate),
+                        Assertions.tuple(later.getId(), "stream1@test.com", arrivalDate.plusDays(1)));
+        Assertions.assertThat(streamed.get(0).getCancelDate()).isNotNull();
+        Assertions.assertThat(streamed).noneMatch(entityManager::contains);
+    }
+
+    private static Reservation getReservation(String email, LocalDate arrivalDate, LocalDate departureDate, Instant cancelDate) {
+        return Reservation.builder()
+                .name("Overlap")
+                .email(email)
+                .arrivalDate(arrivalDate)
+                .departureDate(departureDate)
+                .createdDate(Instant.now())
+                .cancelDate(cancelDate)
+                .build();
+    }
+}
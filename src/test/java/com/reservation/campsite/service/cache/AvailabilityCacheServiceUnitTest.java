@@ -0,0 +1,190 @@
+package com.reservation.campsite.service.cache;
+
+import com.reservation.campsite.services.cache.AvailabilityCacheServiceImpl;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Runs the service against an in-memory Redis stand-in: month keys hold the packed bytes, the MGET reads them back
+ * and the set-days script is applied with the semantics of its BITFIELD calls.
+ */
+@SpringBootTest
+class AvailabilityCacheServiceUnitTest {
+
+    private static final String KEY_PREFIX = "availabilityRangeDates::month:";
+
+    private final StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+
+    private final RedisConnection redisConnection = Mockito.mock(RedisConnection.class);
+
+    private final RedisStringCommands redisStringCommands = Mockito.mock(RedisStringCommands.class);
+
+    private final Map<String, byte[]> redis = new HashMap<>();
+
+    private final List<List<String>> mGetKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(redisConnection.stringCommands()).thenReturn(redisStringCommands);
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisCallback<List<byte[]>>>any()))
+                .thenAnswer(invocation -> invocation.<RedisCallback<List<byte[]>>>getArgument(0).doInRedis(redisConnection));
+        Mockito.when(redisStringCommands.mGet(Mockito.any(byte[][].class))).thenAnswer(this::mGet);
+        Mockito.when(stringRedisTemplate.execute(Mockito.<RedisScript<Long>>any(), Mockito.anyList(), Mockito.any(Object[].class)))
+                .thenAnswer(this::setDays);
+    }
+
+    @Test
+    void givenWrittenAvailabilitiesWhenGetAllThenDecodeThemWithSaturation() {
+        // GIVEN
+        LocalDate date = LocalDate.of(2024, 7, 1);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        service.writeAll(Map.of(date, 0, date.plusDays(1), 5, date.plusDays(2), 254, date.plusDays(3), 300));
+        Map<LocalDate, Integer> cached = service.getAll(date.datesUntil(date.plusDays(4)).toList());
+
+        // THEN
+        Assertions.assertThat(cached).containsExactlyInAnyOrderEntriesOf(
+                Map.of(date, 0, date.plusDays(1), 5, date.plusDays(2), 254, date.plusDays(3), 254));
+        Assertions.assertThat(redis.get(KEY_PREFIX + "2024-07")).startsWith(new byte[]{1, 6, (byte) 255, (byte) 255});
+    }
+
+    @Test
+    void givenEvictedOrUnwrittenDaysWhenGetAllThenTheyAreNotCached() {
+        // GIVEN
+        LocalDate date = LocalDate.of(2024, 7, 10);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        service.writeAll(Map.of(date, 3, date.plusDays(1), 4));
+        service.evictAll(List.of(date));
+        Map<LocalDate, Integer> cached = service.getAll(List.of(date.minusDays(1), date, date.plusDays(1)));
+
+        // THEN
+        Assertions.assertThat(cached).containsExactlyInAnyOrderEntriesOf(Map.of(date.plusDays(1), 4));
+        Assertions.assertThat(redis.get(KEY_PREFIX + "2024-07")[date.getDayOfMonth() - 1]).isZero();
+    }
+
+    @Test
+    void givenValueShorterThanTheDayWhenGetAllThenTheDayIsNotCached() {
+        // GIVEN
+        LocalDate date = LocalDate.of(2024, 7, 2);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        service.writeAll(Map.of(date, 7));
+        Map<LocalDate, Integer> cached = service.getAll(List.of(date, LocalDate.of(2024, 7, 31)));
+
+        // THEN
+        Assertions.assertThat(redis.get(KEY_PREFIX + "2024-07")).hasSize(2);
+        Assertions.assertThat(cached).containsExactlyInAnyOrderEntriesOf(Map.of(date, 7));
+    }
+
+    @Test
+    void givenRangeAcrossMonthsWhenGetAllThenReadBothMonthKeysWithOneMGet() {
+        // GIVEN
+        LocalDate lastDayOfJanuary = LocalDate.of(2024, 1, 31);
+        LocalDate firstDayOfFebruary = LocalDate.of(2024, 2, 1);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        service.writeAll(Map.of(lastDayOfJanuary, 1, firstDayOfFebruary, 2));
+        Map<LocalDate, Integer> cached = service.getAll(List.of(lastDayOfJanuary, firstDayOfFebruary));
+
+        // THEN
+        Assertions.assertThat(cached).containsExactlyInAnyOrderEntriesOf(Map.of(lastDayOfJanuary, 1, firstDayOfFebruary, 2));
+        Assertions.assertThat(redis.get(KEY_PREFIX + "2024-01")).hasSize(31);
+        Assertions.assertThat(redis.get(KEY_PREFIX + "2024-02")).hasSize(1);
+        Assertions.assertThat(mGetKeys).containsExactly(List.of(KEY_PREFIX + "2024-01", KEY_PREFIX + "2024-02"));
+    }
+
+    @Test
+    void givenCachedDayWhenPutAllThenKeepItAndWhenWriteAllThenOverwriteIt() {
+        // GIVEN
+        LocalDate date = LocalDate.of(2024, 7, 15);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        service.putAll(Map.of(date, 3));
+        service.putAll(Map.of(date, 7, date.plusDays(1), 8));
+        Map<LocalDate, Integer> afterPut = service.getAll(List.of(date, date.plusDays(1)));
+        service.writeAll(Map.of(date, 7));
+        Map<LocalDate, Integer> afterWrite = service.getAll(List.of(date));
+
+        // THEN
+        Assertions.assertThat(afterPut).containsExactlyInAnyOrderEntriesOf(Map.of(date, 3, date.plusDays(1), 8));
+        Assertions.assertThat(afterWrite).containsExactlyInAnyOrderEntriesOf(Map.of(date, 7));
+    }
+
+    @Test
+    void givenRedisFailureWhenGetAllThenNothingIsCached() {
+        // GIVEN
+        LocalDate date = LocalDate.of(2024, 7, 1);
+        AvailabilityCacheServiceImpl service = getAvailabilityCacheService();
+
+        // WHEN
+        Mockito.doThrow(new IllegalStateException("connection refused")).when(redisStringCommands).mGet(Mockito.any(byte[][].class));
+
+        // THEN
+        Assertions.assertThat(service.getAll(List.of(date))).isEmpty();
+    }
+
+    private List<byte[]> mGet(InvocationOnMock invocation) {
+        Object[] arguments = invocation.getArguments();
+        Object[] rawKeys = arguments.length == 1 && arguments[0] instanceof byte[][] array ? array : arguments;
+        List<String> keys = Arrays.stream(rawKeys)
+                .map(key -> new String((byte[]) key, StandardCharsets.UTF_8))
+                .toList();
+        mGetKeys.add(keys);
+        return keys.stream().map(redis::get).toList();
+    }
+
+    /**
+     * Applies ARGV as the set-days script does: the overwrite flag, the TTL, then pairs of day offset and value, each
+     * value written unless the day already holds one and the flag is not set.
+     */
+    private Long setDays(InvocationOnMock invocation) {
+        String key = invocation.<List<String>>getArgument(1).get(0);
+        Object[] arguments = invocation.getArguments();
+        List<Object> args = arguments.length == 3 && arguments[2] instanceof Object[] array
+                ? List.of(array)
+                : Arrays.asList(arguments).subList(2, arguments.length);
+        boolean overwrite = "1".equals(args.get(0));
+        for (int i = 2; i < args.size(); i += 2) {
+            int offset = Integer.parseInt((String) args.get(i));
+            int value = Integer.parseInt((String) args.get(i + 1));
+            byte[] days = redis.getOrDefault(key, new byte[0]);
+            if (offset >= days.length) {
+                days = Arrays.copyOf(days, offset + 1);
+            }
+            if (overwrite || days[offset] == 0) {
+                days[offset] = (byte) value;
+            }
+            redis.put(key, days);
+        }
+        return 0L;
+    }
+
+    private AvailabilityCacheServiceImpl getAvailabilityCacheService() {
+        return new AvailabilityCacheServiceImpl(stringRedisTemplate, RedisCacheConfiguration.defaultCacheConfig(),
+                Mockito.mock(RedisMessageListenerContainer.class), new CampsiteMetrics(new SimpleMeterRegistry()),
+                60, "campsite:availabilityRangeDates:invalidation", false, 1000, 5);
+    }
+}
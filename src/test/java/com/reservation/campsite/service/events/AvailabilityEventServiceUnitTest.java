@@ -0,0 +1,125 @@
+package com.reservation.campsite.service.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.dto.response.AvailabilityEventDTO;
+import com.reservation.campsite.exception.ServiceUnavailableException;
+import com.reservation.campsite.services.events.AvailabilityEventServiceImpl;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.AvailabilityService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static com.reservation.campsite.util.TestDataUtils.getAvailabilityDaysByDateRange;
+
+@SpringBootTest
+class AvailabilityEventServiceUnitTest {
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenBurstOfChangesOnOneDateWhenPublishChangesThenPublishOneEventPerTransition() {
+        // GIVEN
+        LocalDate firstDate = LocalDate.now().plusDays(1);
+        LocalDate secondDate = LocalDate.now().plusDays(2);
+        AvailabilityEventServiceImpl service = getAvailabilityEventService();
+        service.subscribe();
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(firstDate, secondDate))
+                .thenReturn(getAvailabilityDaysByDateRange(firstDate, secondDate.plusDays(1), 5, 10, Map.of(secondDate, Pair.of(0, 10))));
+        service.markChanged(List.of(firstDate, secondDate));
+        service.markChanged(List.of(secondDate));
+        service.markChanged(List.of(firstDate));
+        List<AvailabilityEventDTO> events = service.publishChanges();
+
+        // THEN
+        Assertions.assertThat(events).containsExactly(
+                new AvailabilityEventDTO(firstDate, true, 5),
+                new AvailabilityEventDTO(secondDate, false, 0));
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.AVAILABILITY_SUBSCRIBERS).gauge().value()).isEqualTo(1);
+        Mockito.verify(availabilityService).findAvailability(firstDate, secondDate);
+    }
+
+    @Test
+    void givenUnchangedRemainingWhenPublishChangesThenPublishNothing() {
+        // GIVEN
+        LocalDate date = LocalDate.now().plusDays(1);
+        AvailabilityEventServiceImpl service = getAvailabilityEventService();
+        service.subscribe();
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(date, date))
+                .thenReturn(getAvailabilityDaysByDateRange(date, date.plusDays(1), 5, 10, null));
+        service.markChanged(List.of(date));
+        service.publishChanges();
+        service.markChanged(List.of(date));
+        List<AvailabilityEventDTO> events = service.publishChanges();
+
+        // THEN
+        Assertions.assertThat(events).isEmpty();
+    }
+
+    @Test
+    void givenNoSubscribersWhenPublishChangesThenDoNotReadAvailability() {
+        // GIVEN
+        AvailabilityEventServiceImpl service = getAvailabilityEventService();
+
+        // WHEN
+        service.markChanged(List.of(LocalDate.now().plusDays(1)));
+        List<AvailabilityEventDTO> events = service.publishChanges();
+
+        // THEN
+        Assertions.assertThat(events).isEmpty();
+        Mockito.verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void givenMaxSubscribersWhenSubscribeThenServiceUnavailable() {
+        // GIVEN
+        AvailabilityEventServiceImpl service = getAvailabilityEventService(2, 10000);
+        service.subscribe();
+        service.subscribe();
+
+        // THEN
+        Assertions.assertThatThrownBy(service::subscribe)
+                .isInstanceOf(ServiceUnavailableException.class);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.AVAILABILITY_SUBSCRIBERS).gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void givenMaxSubscribersAboveHalfTheConnectionsWhenCreateThenFail() {
+        // THEN
+        Assertions.assertThatThrownBy(() -> getAvailabilityEventService(10000, 10000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("campsite.availability-events.max-subscribers");
+    }
+
+    private AvailabilityEventServiceImpl getAvailabilityEventService() {
+        return getAvailabilityEventService(10, 10000);
+    }
+
+    private AvailabilityEventServiceImpl getAvailabilityEventService(int maxSubscribers, int maxConnections) {
+        return new AvailabilityEventServiceImpl(availabilityService, objectMapper, Mockito.mock(RedisMessageListenerContainer.class),
+                new CampsiteMetrics(meterRegistry), new SyncTaskExecutor(), "campsite:availabilityRangeDates:invalidation",
+                60000, maxSubscribers, maxConnections, 256);
+    }
+}
@@ -0,0 +1,262 @@
+package com.reservation.campsite.service.idempotency;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reservation.campsite.exception.UnprocessableEntityException;
+import com.reservation.campsite.services.idempotency.IdempotencyServiceImpl;
+import com.reservation.campsite.services.idempotency.IdempotentResponse;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class IdempotencyServiceUnitTest {
+
+    private static final String KEY = "POST:/reservations:5f0c1a6e";
+
+    private static final String REDIS_KEY = "campsite:idempotency:" + KEY;
+
+    private static final String FINGERPRINT = "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08";
+
+    private static final String OTHER_FINGERPRINT = "60303ae22b998861bce3b28f33eec1be758a213c86c93c076dbe9f558c11c752";
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final StringRedisTemplate stringRedisTemplate = Mockito.mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = Mockito.mock(ValueOperations.class);
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void givenNewKeyWhenExecuteThenExecuteAndStoreResponse() throws Exception {
+        // GIVEN
+        IdempotentResponse response = getResponse(201);
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+        IdempotentResponse result = service.execute(KEY, FINGERPRINT, () -> response);
+
+        // THEN
+        Assertions.assertThat(result).isSameAs(response);
+        String claim = getClaim();
+        ArgumentCaptor<String> stored = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(stringRedisTemplate).execute(Mockito.<RedisScript<Long>>any(), Mockito.eq(List.of(REDIS_KEY)),
+                Mockito.eq(claim), stored.capture(), Mockito.eq(String.valueOf(Duration.ofMinutes(1440).toMillis())));
+        JsonNode storedEntry = objectMapper.readTree(stored.getValue());
+        Assertions.assertThat(storedEntry.get("token").asText()).isEqualTo(objectMapper.readTree(claim).get("token").asText());
+        Assertions.assertThat(storedEntry.get("fingerprint").asText()).isEqualTo(FINGERPRINT);
+        Assertions.assertThat(storedEntry.get("response").get("status").asInt()).isEqualTo(201);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.IDEMPOTENT_REPLAYS).counter().count()).isZero();
+    }
+
+    @Test
+    void givenStoredResponseWhenExecuteThenReplayWithoutExecuting() throws Exception {
+        // GIVEN
+        IdempotentResponse response = getResponse(400);
+        AtomicInteger executions = new AtomicInteger();
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(REDIS_KEY)).thenReturn(getStoredEntry(FINGERPRINT, response));
+        IdempotentResponse result = service.execute(KEY, FINGERPRINT, () -> {
+            executions.incrementAndGet();
+            return getResponse(201);
+        });
+
+        // THEN
+        Assertions.assertThat(executions).hasValue(0);
+        Assertions.assertThat(result.status()).isEqualTo(400);
+        Assertions.assertThat(result.body()).isEqualTo(response.body());
+        Assertions.assertThat(result.replayed()).isTrue();
+        Mockito.verify(stringRedisTemplate, Mockito.never()).execute(Mockito.<RedisScript<Long>>any(), Mockito.anyList(),
+                Mockito.any(), Mockito.any(), Mockito.any());
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.IDEMPOTENT_REPLAYS).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenStoredResponseOfAnotherBodyWhenExecuteThenFailWithoutExecuting() throws Exception {
+        // GIVEN
+        AtomicInteger executions = new AtomicInteger();
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(false);
+        Mockito.when(valueOperations.get(REDIS_KEY)).thenReturn(getStoredEntry(OTHER_FINGERPRINT, getResponse(201)));
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> service.execute(KEY, FINGERPRINT, () -> {
+                    executions.incrementAndGet();
+                    return getResponse(201);
+                }))
+                .isInstanceOf(UnprocessableEntityException.class);
+        Assertions.assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void givenServerErrorWhenExecuteThenReleaseOnlyItsOwnClaim() throws Exception {
+        // GIVEN
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+        IdempotentResponse result = service.execute(KEY, FINGERPRINT, () -> getResponse(500));
+
+        // THEN
+        Assertions.assertThat(result.status()).isEqualTo(500);
+        Mockito.verify(stringRedisTemplate).execute(Mockito.<RedisScript<Long>>any(), Mockito.eq(List.of(REDIS_KEY)), Mockito.eq(getClaim()));
+        Mockito.verify(stringRedisTemplate, Mockito.never()).delete(Mockito.anyString());
+    }
+
+    @Test
+    void givenRunningExecutionWhenRenewClaimsThenExtendItsMarkerUntilItCompletes() throws Exception {
+        // GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdempotencyServiceImpl service = getIdempotencyService();
+        String inFlightTtlMillis = String.valueOf(Duration.ofSeconds(30).toMillis());
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+        CompletableFuture<IdempotentResponse> running = CompletableFuture.supplyAsync(() -> execute(service, () -> {
+            started.countDown();
+            release.await();
+            return getResponse(201);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        service.renewClaims();
+        release.countDown();
+        running.get(5, TimeUnit.SECONDS);
+        service.renewClaims();
+
+        // THEN
+        Mockito.verify(stringRedisTemplate, Mockito.times(1)).execute(Mockito.<RedisScript<Long>>any(),
+                Mockito.eq(List.of(REDIS_KEY)), Mockito.eq(getClaim()), Mockito.eq(inFlightTtlMillis));
+    }
+
+    @Test
+    void givenRenewIntervalAboveHalfTheInFlightTtlWhenCreateThenFail() {
+        // THEN
+        Assertions.assertThatThrownBy(() -> new IdempotencyServiceImpl(stringRedisTemplate, objectMapper,
+                        new CampsiteMetrics(meterRegistry), 1440, 30, 20000, 10000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("campsite.idempotency.renew-millis");
+    }
+
+    @Test
+    void givenRunningExecutionWhenExecuteDuplicateThenWaitForItsResponse() throws Exception {
+        // GIVEN
+        IdempotentResponse response = getResponse(201);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true, false);
+        Mockito.when(valueOperations.get(REDIS_KEY)).thenReturn(getStoredEntry(FINGERPRINT, response));
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() -> execute(service, () -> {
+            executions.incrementAndGet();
+            started.countDown();
+            release.await();
+            return response;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<IdempotentResponse> duplicate = CompletableFuture.supplyAsync(() -> execute(service, () -> {
+            executions.incrementAndGet();
+            return getResponse(201);
+        }));
+        release.countDown();
+
+        // THEN
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        Assertions.assertThat(duplicate.get(5, TimeUnit.SECONDS).replayed()).isTrue();
+        Assertions.assertThat(duplicate.get().body()).isEqualTo(response.body());
+        Assertions.assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void givenRunningExecutionWhenExecuteDuplicateWithAnotherBodyThenFail() throws Exception {
+        // GIVEN
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdempotencyServiceImpl service = getIdempotencyService();
+
+        // WHEN
+        Mockito.when(valueOperations.setIfAbsent(Mockito.eq(REDIS_KEY), Mockito.anyString(), Mockito.any(Duration.class)))
+                .thenReturn(true);
+        CompletableFuture<IdempotentResponse> first = CompletableFuture.supplyAsync(() -> execute(service, () -> {
+            started.countDown();
+            release.await();
+            return getResponse(201);
+        }));
+        started.await(5, TimeUnit.SECONDS);
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> service.execute(KEY, OTHER_FINGERPRINT, () -> getResponse(201)))
+                .isInstanceOf(UnprocessableEntityException.class);
+        release.countDown();
+        Assertions.assertThat(first.get(5, TimeUnit.SECONDS).status()).isEqualTo(201);
+    }
+
+    private IdempotentResponse execute(IdempotencyServiceImpl service, Callable<IdempotentResponse> execution) {
+        try {
+            return service.execute(KEY, FINGERPRINT, execution);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private IdempotentResponse getResponse(int status) {
+        return new IdempotentResponse(status, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8), false);
+    }
+
+    private String getClaim() {
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(valueOperations, Mockito.atLeastOnce()).setIfAbsent(Mockito.eq(REDIS_KEY), claim.capture(), Mockito.any(Duration.class));
+        return claim.getValue();
+    }
+
+    private String getStoredEntry(String fingerprint, IdempotentResponse response) throws Exception {
+        return objectMapper.writeValueAsString(Map.of("token", "0b5e6c1d", "fingerprint", fingerprint, "response", response));
+    }
+
+    private IdempotencyServiceImpl getIdempotencyService() {
+        return new IdempotencyServiceImpl(stringRedisTemplate, objectMapper, new CampsiteMetrics(meterRegistry), 1440, 30, 10000, 10000);
+    }
+}
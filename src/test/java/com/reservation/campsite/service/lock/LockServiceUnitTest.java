@@ -0,0 +1,82 @@
+package com.reservation.campsite.service.lock;
+
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.lock.LockServiceImpl;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.integration.support.locks.DefaultLockRegistry;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.reservation.campsite.exception.ErrorCode.BAD_REQUEST_TO_HIGH_DEMAND;
+
+@SpringBootTest
+class LockServiceUnitTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void givenKeysWhenLockThenExecuteSupplier() {
+        // GIVEN
+        LockService service = getLockService();
+        List<String> keys = List.of("availability:2023-01-02", "availability:2023-01-01");
+
+        // WHEN
+        String result = service.lock(keys, () -> "executed", 1);
+
+        // THEN
+        Assertions.assertThat(result).isEqualTo("executed");
+    }
+
+    @Test
+    void givenKeyLockedByAnotherThreadWhenLockThenThrowException() throws Exception {
+        // GIVEN
+        LockService service = getLockService();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            // WHEN
+            Future<Boolean> holder = executor.submit(() -> service.lock(List.of("availability:2023-01-01"), () -> {
+                locked.countDown();
+                try {
+                    return release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }, 5));
+            Assertions.assertThat(locked.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // THEN
+            Assertions.assertThatThrownBy(() -> service.lock(List.of("availability:2023-01-01", "availability:2023-01-02"), () -> "executed", 0))
+                    .isInstanceOf(BadRequestException.class)
+                    .hasFieldOrPropertyWithValue("errorCode", BAD_REQUEST_TO_HIGH_DEMAND);
+            Assertions.assertThat(meterRegistry.get(CampsiteMetrics.LOCK_TIMEOUTS).counter().count()).isEqualTo(1);
+            Assertions.assertThat(service.lock(List.of("availability:2023-01-03"), () -> "executed", 0))
+                    .isEqualTo("executed");
+
+            release.countDown();
+            Assertions.assertThat(holder.get(5, TimeUnit.SECONDS)).isTrue();
+            Assertions.assertThat(service.lock(List.of("availability:2023-01-01"), () -> "executed", 0))
+                    .isEqualTo("executed");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private LockService getLockService() {
+        return new LockServiceImpl(new DefaultLockRegistry(), 64, new CampsiteMetrics(meterRegistry));
+    }
+}
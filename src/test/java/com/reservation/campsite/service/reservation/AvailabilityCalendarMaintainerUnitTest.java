@@ -0,0 +1,82 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.AvailabilityCalendarMaintainer;
+import com.reservation.campsite.services.reservation.AvailabilityChangeTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+@SpringBootTest
+class AvailabilityCalendarMaintainerUnitTest {
+
+    @MockBean
+    private AvailabilityRepository availabilityRepository;
+
+    @MockBean
+    private AvailabilityChangeTracker availabilityChangeTracker;
+
+    @MockBean
+    private LockService lockService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(lockService.lock(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
+    @Test
+    void givenMissingDatesInTheHorizonWhenProvisionThenInsertThemAndWarmTheOpenedDates() {
+        // GIVEN
+        LocalDate today = LocalDate.of(2030, 1, 1);
+        AvailabilityCalendarMaintainer maintainer = getAvailabilityCalendarMaintainer();
+
+        // WHEN
+        Mockito.when(availabilityRepository.findDatesBetween(today, today.plusDays(5)))
+                .thenReturn(List.of(today, today.plusDays(1), today.plusDays(2), today.plusDays(4)));
+        int provisioned = maintainer.provision(today);
+
+        // THEN
+        Assertions.assertThat(provisioned).isEqualTo(2);
+        Mockito.verify(availabilityRepository).insertAll(List.of(today.plusDays(3), today.plusDays(5)), 100);
+        Mockito.verify(availabilityChangeTracker).track(Set.of(today.plusDays(2), today.plusDays(3), today.plusDays(4), today.plusDays(5)));
+    }
+
+    @Test
+    void givenCompleteCalendarWhenProvisionThenOnlyWarmTheOpenedDates() {
+        // GIVEN
+        LocalDate today = LocalDate.of(2030, 1, 1);
+        AvailabilityCalendarMaintainer maintainer = getAvailabilityCalendarMaintainer();
+
+        // WHEN
+        Mockito.when(availabilityRepository.findDatesBetween(today, today.plusDays(5)))
+                .thenReturn(today.datesUntil(today.plusDays(6)).toList());
+        int provisioned = maintainer.provision(today);
+
+        // THEN
+        Assertions.assertThat(provisioned).isZero();
+        Mockito.verify(availabilityRepository).insertAll(List.of(), 100);
+        Mockito.verify(availabilityChangeTracker).track(Set.of(today.plusDays(2), today.plusDays(3), today.plusDays(4)));
+    }
+
+    private AvailabilityCalendarMaintainer getAvailabilityCalendarMaintainer() {
+        return new AvailabilityCalendarMaintainer(availabilityRepository, availabilityChangeTracker, lockService,
+                transactionManager, new CampsiteMetrics(new SimpleMeterRegistry()), 2, 2, 3, 100, 10);
+    }
+}
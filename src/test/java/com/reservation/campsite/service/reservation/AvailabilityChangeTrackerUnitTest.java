@@ -0,0 +1,84 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.cache.AvailabilityCacheService;
+import com.reservation.campsite.services.events.AvailabilityChangedEvent;
+import com.reservation.campsite.services.reservation.AvailabilityChangeTracker;
+import com.reservation.campsite.services.reservation.AvailabilityIndex;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@SpringBootTest
+class AvailabilityChangeTrackerUnitTest {
+
+    @MockBean
+    private AvailabilityRepository availabilityRepository;
+
+    @MockBean
+    private AvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private AvailabilityCacheService availabilityCacheService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ApplicationEventPublisher applicationEventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+    @Test
+    void givenSeveralUpdatesInTransactionWhenCommitThenWriteThroughOnce() {
+        // GIVEN
+        LocalDate firstDate = LocalDate.now().plusDays(1);
+        LocalDate secondDate = LocalDate.now().plusDays(2);
+        List<AvailabilityDay> days = List.of(new AvailabilityDay(firstDate, 4, 3), new AvailabilityDay(secondDate, 0, 7));
+        AvailabilityChangeTracker tracker = getAvailabilityChangeTracker();
+
+        // WHEN
+        Mockito.when(availabilityRepository.findAvailabilityDaysByDates(Set.of(firstDate, secondDate)))
+                .thenReturn(days);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tracker.track(List.of(firstDate, secondDate));
+            tracker.track(List.of(secondDate));
+            Mockito.verifyNoInteractions(availabilityCacheService);
+        });
+
+        // THEN
+        Mockito.verify(availabilityRepository).findAvailabilityDaysByDates(Set.of(firstDate, secondDate));
+        Mockito.verify(availabilityIndex).put(Set.of(firstDate, secondDate), days);
+        Mockito.verify(availabilityCacheService).writeAll(Map.of(firstDate, 4, secondDate, 0));
+        Mockito.verify(availabilityCacheService, Mockito.never()).evictAll(Mockito.any());
+        Mockito.verify(applicationEventPublisher).publishEvent(new AvailabilityChangedEvent(List.of(firstDate, secondDate)));
+    }
+
+    @Test
+    void givenUpdateInTransactionWhenRollbackThenNothingIsWritten() {
+        // GIVEN
+        LocalDate date = LocalDate.now().plusDays(1);
+        AvailabilityChangeTracker tracker = getAvailabilityChangeTracker();
+
+        // WHEN
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            tracker.track(List.of(date));
+            status.setRollbackOnly();
+        });
+
+        // THEN
+        Mockito.verifyNoInteractions(availabilityRepository, availabilityIndex, availabilityCacheService, applicationEventPublisher);
+    }
+
+    private AvailabilityChangeTracker getAvailabilityChangeTracker() {
+        return new AvailabilityChangeTracker(availabilityRepository, availabilityIndex, availabilityCacheService, applicationEventPublisher);
+    }
+}
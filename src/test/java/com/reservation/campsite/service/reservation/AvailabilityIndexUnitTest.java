@@ -0,0 +1,160 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.projection.AvailabilityRangeVersion;
+import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.reservation.AvailabilityIndex;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.util.Pair;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.reservation.campsite.util.TestDataUtils.getAvailabilityDaysByDateRange;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class AvailabilityIndexUnitTest {
+
+    private static final int MAX_AHEAD_ARRIVAL_DAYS = 31;
+
+    private static final int MAX_ADVANCE_DAYS = 31;
+
+    @MockBean
+    private AvailabilityRepository availabilityRepository;
+
+    @Test
+    void givenLoadedIndexWhenFindAvailabilityThenAvailabilitiesExpectedByDates() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        LocalDate soldOutDate = today.plusDays(2);
+        List<AvailabilityDay> availabilitiesData = getAvailabilityDaysByDateRange(today, today.plusDays(MAX_AHEAD_ARRIVAL_DAYS + 2), 10, 10,
+                Map.of(soldOutDate, Pair.of(0, 10)));
+        AvailabilityIndex index = getAvailabilityIndex(true);
+
+        // WHEN
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(availabilitiesData);
+        index.refresh();
+
+        // THEN
+        Assertions.assertThat(index.findAvailability(today.plusDays(1), today.plusDays(3)))
+                .isPresent()
+                .get()
+                .satisfies(availabilities -> Assertions.assertThat(availabilities)
+                        .hasSize(3)
+                        .containsEntry(today.plusDays(1), true)
+                        .containsEntry(soldOutDate, false)
+                        .containsEntry(today.plusDays(3), true));
+    }
+
+    @Test
+    void givenLoadedIndexWhenPutSoldOutDateThenDateIsSoldOut() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        LocalDate date = today.plusDays(5);
+        List<AvailabilityDay> availabilitiesData = getAvailabilityDaysByDateRange(today, today.plusDays(MAX_AHEAD_ARRIVAL_DAYS + 2), 1, 10, null);
+        AvailabilityIndex index = getAvailabilityIndex(true);
+
+        // WHEN
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(availabilitiesData);
+        index.refresh();
+        index.put(Set.of(date), List.of(new AvailabilityDay(date, 0, 1)));
+
+        // THEN
+        Assertions.assertThat(index.findAvailability(date.minusDays(1), date.plusDays(1)))
+                .isPresent()
+                .get()
+                .satisfies(availabilities -> Assertions.assertThat(availabilities)
+                        .containsEntry(date.minusDays(1), true)
+                        .containsEntry(date, false)
+                        .containsEntry(date.plusDays(1), true));
+    }
+
+    @Test
+    void givenLoadedIndexWhenPutNewVersionThenVersionAndAvailabilityChangeTogether() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        LocalDate date = today.plusDays(5);
+        List<AvailabilityDay> availabilitiesData = getAvailabilityDaysByDateRange(today, today.plusDays(MAX_AHEAD_ARRIVAL_DAYS + 2), 10, 10, null);
+        AvailabilityIndex index = getAvailabilityIndex(true);
+
+        // WHEN
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(availabilitiesData);
+        index.refresh();
+        AvailabilityIndex.VersionedAvailability before = index.findVersionedAvailability(date.minusDays(1), date.plusDays(1)).orElseThrow();
+        index.put(Set.of(date), List.of(new AvailabilityDay(date, 0, 1)));
+
+        // THEN
+        Assertions.assertThat(before.version()).isEqualTo(new AvailabilityRangeVersion(3, 0));
+        Assertions.assertThat(before.availability().get()).containsEntry(date, true).hasSize(3);
+        Assertions.assertThat(index.findVersionedAvailability(date.minusDays(1), date.plusDays(1)))
+                .isPresent()
+                .get()
+                .satisfies(after -> {
+                    Assertions.assertThat(after.version()).isEqualTo(new AvailabilityRangeVersion(3, 1));
+                    Assertions.assertThat(after.availability().get()).containsEntry(date, false);
+                });
+    }
+
+    @Test
+    void givenPutNewerThanLoadedRowWhenRefreshThenKeepTheNewerDay() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        LocalDate date = today.plusDays(5);
+        List<AvailabilityDay> staleData = getAvailabilityDaysByDateRange(today, today.plusDays(MAX_AHEAD_ARRIVAL_DAYS + 2), 1, 10, null);
+        List<AvailabilityDay> newerData = staleData.stream()
+                .map(day -> day.date().equals(date) ? new AvailabilityDay(date, 1, 2) : day)
+                .toList();
+        AvailabilityIndex index = getAvailabilityIndex(true);
+
+        // WHEN
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(staleData, staleData, newerData);
+        index.refresh();
+        index.put(Set.of(date), List.of(new AvailabilityDay(date, 0, 1)));
+        index.refresh();
+        Map<LocalDate, Boolean> afterStaleRefresh = index.findAvailability(date, date).orElseThrow();
+        index.refresh();
+
+        // THEN
+        Assertions.assertThat(afterStaleRefresh).containsEntry(date, false);
+        Assertions.assertThat(index.findAvailability(date, date)).contains(Map.of(date, true));
+    }
+
+    @Test
+    void givenDateRangeOutOfWindowWhenFindAvailabilityThenEmpty() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        AvailabilityIndex index = getAvailabilityIndex(true);
+
+        // WHEN
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(List.of());
+        index.refresh();
+
+        // THEN
+        Assertions.assertThat(index.findAvailability(today.minusDays(1), today.plusDays(1))).isEmpty();
+        Assertions.assertThat(index.findAvailability(today.plusDays(1), today.plusDays(MAX_AHEAD_ARRIVAL_DAYS + 10))).isEmpty();
+    }
+
+    @Test
+    void givenDisabledIndexWhenFindAvailabilityThenEmpty() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+        AvailabilityIndex index = getAvailabilityIndex(false);
+
+        // WHEN
+        index.refresh();
+
+        // THEN
+        Assertions.assertThat(index.findAvailability(today.plusDays(1), today.plusDays(2))).isEmpty();
+    }
+
+    private AvailabilityIndex getAvailabilityIndex(boolean enabled) {
+        return new AvailabilityIndex(availabilityRepository, enabled, MAX_AHEAD_ARRIVAL_DAYS, MAX_ADVANCE_DAYS);
+    }
+}
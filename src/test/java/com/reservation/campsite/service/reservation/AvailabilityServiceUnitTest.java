@@ -1,8 +1,9 @@
 package com.reservation.campsite.service.reservation;
 
 import com.reservation.campsite.exception.NotFoundException;
-import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
 import com.reservation.campsite.persistence.repository.AvailabilityRepository;
+import com.reservation.campsite.services.reservation.AvailabilityChangeTracker;
 import com.reservation.campsite.services.reservation.AvailabilityService;
 import com.reservation.campsite.services.reservation.AvailabilityServiceImpl;
 import org.assertj.core.api.Assertions;
@@ -18,8 +19,12 @@ import java.util.Map;
 import java.util.function.Predicate;
 
 import static com.reservation.campsite.exception.ErrorCode.NOT_FOUND_AVAILABILITY_TO_DATE;
-import static com.reservation.campsite.util.TestDataUtils.getAvailabilitiesByDateRange;
+import static com.reservation.campsite.util.TestDataUtils.getAvailabilityDaysByDateRange;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -28,6 +33,9 @@ class AvailabilityServiceUnitTest {
     @MockBean
     private AvailabilityRepository availabilityRepository;
 
+    @MockBean
+    private AvailabilityChangeTracker availabilityChangeTracker;
+
     @Test
     void givenArrivalAndDepartureDateWhenFindAvailabilityThenExpectedAvailable() {
         // GIVEN
@@ -37,20 +45,20 @@ class AvailabilityServiceUnitTest {
         LocalDate arrivalDate = LocalDate.now().plusDays(1);
         LocalDate departureDate = LocalDate.now().plusDays(expectedSize);
 
-        List<Availability> availabilitiesData = getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, null);
+        List<AvailabilityDay> availabilitiesData = getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, null);
         AvailabilityService service = getAvailabilityService();
 
         // WHEN
-        when(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, departureDate)).thenReturn(availabilitiesData);
+        when(availabilityRepository.findAvailabilityDaysBetween(arrivalDate, departureDate)).thenReturn(availabilitiesData);
 
         // THEN
-        List<Availability> availabilities = service.findAvailability(arrivalDate, departureDate);
+        List<AvailabilityDay> availabilities = service.findAvailability(arrivalDate, departureDate);
         Assertions.assertThat(availabilities)
                 .isNotNull()
                 .isNotEmpty()
                 .hasSize(expectedSize)
-                .allMatch(availability -> availability.getAvailable() == expectedAvailable)
-                .allMatch(availability -> availability.getAvailableTotal() == expectedAvailableTotal);
+                .allMatch(availability -> availability.available() == expectedAvailable);
+        verify(availabilityRepository, never()).findAvailabilitiesByDateBetweenOrderByDate(any(), any());
     }
 
     @Test
@@ -63,16 +71,16 @@ class AvailabilityServiceUnitTest {
         LocalDate departureDate = LocalDate.now().plusDays(expectedSize);
         Map<LocalDate, Pair<Integer, Integer>> expectedDatesWithNonAvailability =
                 Map.of(LocalDate.parse(arrivalDate.toString()), Pair.of(0, 10), LocalDate.parse(departureDate.toString()), Pair.of(0, 10));
-        List<Availability> availabilitiesData =
-                getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, expectedDatesWithNonAvailability);
+        List<AvailabilityDay> availabilitiesData =
+                getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, expectedDatesWithNonAvailability);
         AvailabilityService service = getAvailabilityService();
 
         // WHEN
-        when(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(arrivalDate, departureDate)).thenReturn(availabilitiesData);
+        when(availabilityRepository.findAvailabilityDaysBetween(arrivalDate, departureDate)).thenReturn(availabilitiesData);
 
         // THEN
-        List<Availability> availabilities = service.findAvailability(arrivalDate, departureDate);
-        Predicate<Availability> hasNotAvailable = availability -> Boolean.FALSE.equals(availability.hasAvailability());
+        List<AvailabilityDay> availabilities = service.findAvailability(arrivalDate, departureDate);
+        Predicate<AvailabilityDay> hasNotAvailable = availability -> Boolean.FALSE.equals(availability.hasAvailability());
         Assertions.assertThat(availabilities)
                 .isNotNull()
                 .isNotEmpty()
@@ -85,85 +93,88 @@ class AvailabilityServiceUnitTest {
     void givenArrivalDateAndDepartureDateWhenUpdateAvailabilityThenDecreaseAvailabilityByDate() {
         // GIVEN
         int expectedSize = 3;
-        int expectedAvailable = 10;
-        int expectedAvailableTotal = 10;
         int decreaseIn = -1;
         LocalDate arrivalDate = LocalDate.now().plusDays(1);
         LocalDate departureDate = LocalDate.now().plusDays(expectedSize);
-        List<Availability> availabilitiesData =
-                getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, null);
         AvailabilityService service = getAvailabilityService();
 
         // WHEN
-        when(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(any(), any())).thenReturn(availabilitiesData);
-        when(availabilityRepository.saveAll(any())).thenReturn(availabilitiesData);
+        when(availabilityRepository.incrementAvailability(arrivalDate, departureDate, decreaseIn)).thenReturn(expectedSize);
 
         // THEN
-        service.updateAvailability(arrivalDate, departureDate, decreaseIn);
-        Assertions.assertThat(availabilitiesData)
-                .isNotNull()
-                .isNotEmpty()
-                .hasSize(expectedSize)
-                .areExactly(availabilitiesData.size(), new Condition<>(availability -> availability.getAvailable() == expectedAvailable + decreaseIn, String.format("Decrease available should be %d", expectedAvailable + decreaseIn)))
-                .areExactly(availabilitiesData.size(), new Condition<>(availability -> availability.getAvailableTotal() == expectedAvailableTotal, String.format("Available total should be %d", expectedAvailableTotal)));
-
+        Assertions.assertThatCode(() -> service.updateAvailability(arrivalDate, departureDate, decreaseIn))
+                .doesNotThrowAnyException();
+        verify(availabilityRepository).incrementAvailability(arrivalDate, departureDate, decreaseIn);
+        verify(availabilityRepository, never()).saveAll(any());
     }
 
     @Test
     void givenArrivalDateAndDepartureDateWhenUpdateAvailabilityThenIncreaseAvailabilityByDate() {
         // GIVEN
         int expectedSize = 3;
-        int expectedAvailable = 0;
-        int expectedAvailableTotal = 10;
         int increaseIn = 5;
         LocalDate arrivalDate = LocalDate.now().plusDays(1);
         LocalDate departureDate = LocalDate.now().plusDays(expectedSize);
-        List<Availability> availabilitiesData =
-                getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailableTotal, null);
         AvailabilityService service = getAvailabilityService();
 
         // WHEN
-        when(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(any(), any())).thenReturn(availabilitiesData);
-        when(availabilityRepository.saveAll(any())).thenReturn(availabilitiesData);
+        when(availabilityRepository.incrementAvailability(arrivalDate, departureDate, increaseIn)).thenReturn(expectedSize);
 
         // THEN
-        service.updateAvailability(arrivalDate, departureDate, increaseIn);
-        Assertions.assertThat(availabilitiesData)
-                .isNotNull()
-                .isNotEmpty()
-                .hasSize(expectedSize)
-                .areExactly(availabilitiesData.size(), new Condition<>(availability -> availability.getAvailable() == expectedAvailable + increaseIn, String.format("Decrease available should be %d", expectedAvailable + increaseIn)))
-                .areExactly(availabilitiesData.size(), new Condition<>(availability -> availability.getAvailableTotal() == expectedAvailableTotal, String.format("Available total should be %d", expectedAvailableTotal)));
-
+        Assertions.assertThatCode(() -> service.updateAvailability(arrivalDate, departureDate, increaseIn))
+                .doesNotThrowAnyException();
+        verify(availabilityRepository).incrementAvailability(arrivalDate, departureDate, increaseIn);
+        verify(availabilityChangeTracker).track(List.of(arrivalDate, arrivalDate.plusDays(1), departureDate));
     }
 
     @Test
     void givenArrivalDateAndDepartureDateWhenUpdateAvailabilityThenThrowExceptionByDecreaseLowerThanZero() {
         // GIVEN
-
-        int available = 0;
+        int available = 10;
         int availableTotal = 10;
         int decreaseIn = -1;
         LocalDate arrivalDate = LocalDate.now().plusDays(1);
         LocalDate departureDate = LocalDate.now().plusDays(3);
-        List<Availability> availabilitiesData =
-                getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), available, availableTotal, null);
+        LocalDate soldOutDate = LocalDate.now().plusDays(2);
+        List<AvailabilityDay> availabilitiesData =
+                getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), available, availableTotal, Map.of(soldOutDate, Pair.of(0, 10)));
         AvailabilityService service = getAvailabilityService();
 
         // WHEN
-        when(availabilityRepository.findAvailabilitiesByDateBetweenOrderByDate(any(), any())).thenReturn(availabilitiesData);
-        when(availabilityRepository.saveAll(any())).thenReturn(availabilitiesData);
+        when(availabilityRepository.incrementAvailability(arrivalDate, departureDate, decreaseIn)).thenReturn(2);
+        when(availabilityRepository.findAvailabilityDaysBetween(any(), any())).thenReturn(availabilitiesData);
 
         // THEN
-
         Assertions.assertThatThrownBy(() -> service.updateAvailability(arrivalDate, departureDate, decreaseIn))
                 .isInstanceOf(NotFoundException.class)
-                .hasFieldOrPropertyWithValue("errorCode", NOT_FOUND_AVAILABILITY_TO_DATE);
+                .hasFieldOrPropertyWithValue("errorCode", NOT_FOUND_AVAILABILITY_TO_DATE)
+                .hasMessageContaining(soldOutDate.toString());
+        verify(availabilityChangeTracker, never()).track(any());
+    }
 
+    @Test
+    void givenPlusByDateWhenUpdateAvailabilityThenUpdateOncePerDistinctPlus() {
+        // GIVEN
+        LocalDate firstDate = LocalDate.now().plusDays(1);
+        LocalDate secondDate = LocalDate.now().plusDays(2);
+        LocalDate thirdDate = LocalDate.now().plusDays(3);
+        Map<LocalDate, Integer> plusByDate = Map.of(firstDate, -1, secondDate, -2, thirdDate, -1);
+        AvailabilityService service = getAvailabilityService();
+
+        // WHEN
+        when(availabilityRepository.incrementAvailabilityByDates(any(), eq(-1))).thenReturn(2);
+        when(availabilityRepository.incrementAvailabilityByDates(any(), eq(-2))).thenReturn(1);
+
+        // THEN
+        Assertions.assertThatCode(() -> service.updateAvailability(plusByDate))
+                .doesNotThrowAnyException();
+        verify(availabilityRepository).incrementAvailabilityByDates(argThat(dates -> dates.size() == 2 && dates.containsAll(List.of(firstDate, thirdDate))), eq(-1));
+        verify(availabilityRepository).incrementAvailabilityByDates(List.of(secondDate), -2);
+        verify(availabilityChangeTracker).track(plusByDate.keySet());
     }
 
 
     private AvailabilityService getAvailabilityService() {
-        return new AvailabilityServiceImpl(availabilityRepository, cacheManager);
+        return new AvailabilityServiceImpl(availabilityRepository, availabilityChangeTracker);
     }
 }
@@ -0,0 +1,155 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.NotFoundException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.BookingPipelineImpl;
+import com.reservation.campsite.services.reservation.ReservationBatchResult;
+import com.reservation.campsite.services.reservation.ReservationBatchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.reservation.campsite.mapper.Mapper.mapper;
+
+@SpringBootTest
+class BookingPipelineUnitTest {
+
+    @MockBean
+    private ReservationBatchService reservationBatchService;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookingPipelineImpl bookingPipeline;
+
+    @BeforeEach
+    void setUp() {
+        bookingPipeline = new BookingPipelineImpl(reservationBatchService, new CampsiteMetrics(meterRegistry), 2, 16, 100, 5000);
+        bookingPipeline.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingPipeline.stop();
+    }
+
+    @Test
+    void givenRequestWhenSubmitThenCreateInPartialBatchAndReturnReservation() {
+        // GIVEN
+        ReservationRequestDTO request = getReservationRequestDTO("test@test.com");
+        Reservation reservation = mapper(request).toReservation();
+        ArgumentCaptor<ReservationBatchRequestDTO> batchCaptor = ArgumentCaptor.forClass(ReservationBatchRequestDTO.class);
+
+        // WHEN
+        Mockito.when(reservationBatchService.create(Mockito.any()))
+                .thenReturn(new ReservationBatchResult(BatchMode.PARTIAL, List.of(ReservationBatchResult.Item.created(0, reservation))));
+        Reservation result = bookingPipeline.submit(request);
+
+        // THEN
+        Assertions.assertThat(result).isSameAs(reservation);
+        Mockito.verify(reservationBatchService).create(batchCaptor.capture());
+        Assertions.assertThat(batchCaptor.getValue().getMode()).isEqualTo(BatchMode.PARTIAL);
+        Assertions.assertThat(batchCaptor.getValue().getReservations()).containsExactly(request);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.BOOKING_PIPELINE_BATCH_SIZE).summary().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenRequestNotCreatedWhenSubmitThenThrowItsError() {
+        // GIVEN
+        ReservationRequestDTO request = getReservationRequestDTO("test@test.com");
+        NotFoundException error = NotFoundException.availabilityDate(request.getArrivalDate());
+
+        // WHEN
+        Mockito.when(reservationBatchService.create(Mockito.any()))
+                .thenReturn(new ReservationBatchResult(BatchMode.PARTIAL, List.of(ReservationBatchResult.Item.failed(0, error))));
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> bookingPipeline.submit(request)).isSameAs(error);
+    }
+
+    @Test
+    void givenStoppedPipelineWhenSubmitThenThrowHighDemand() {
+        // GIVEN
+        bookingPipeline.stop();
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> bookingPipeline.submit(getReservationRequestDTO("test@test.com")))
+                .isInstanceOf(BadRequestException.class);
+        Mockito.verifyNoInteractions(reservationBatchService);
+    }
+
+    @Test
+    void givenQueuedRequestWhenWaitRunsOutThenThrowHighDemandAndNeverCreateIt() throws InterruptedException {
+        // GIVEN
+        BookingPipelineImpl slowPipeline = new BookingPipelineImpl(reservationBatchService, new CampsiteMetrics(meterRegistry), 1, 16, 100, 200);
+        ReservationRequestDTO first = getReservationRequestDTO("first@test.com");
+        ReservationRequestDTO queued = getReservationRequestDTO("queued@test.com");
+        CountDownLatch queuedGaveUp = new CountDownLatch(1);
+        ArgumentCaptor<ReservationBatchRequestDTO> batchCaptor = ArgumentCaptor.forClass(ReservationBatchRequestDTO.class);
+
+        // WHEN
+        Mockito.when(reservationBatchService.create(Mockito.any())).thenAnswer(invocation -> {
+            queuedGaveUp.await(5, TimeUnit.SECONDS);
+            ReservationBatchRequestDTO batch = invocation.getArgument(0);
+            return new ReservationBatchResult(BatchMode.PARTIAL, List.of(
+                    ReservationBatchResult.Item.created(0, mapper(batch.getReservations().get(0)).toReservation())));
+        });
+        slowPipeline.start();
+        try {
+            Thread.ofPlatform().start(() -> slowPipeline.submit(first));
+            Thread.sleep(50);
+            Assertions.assertThatThrownBy(() -> slowPipeline.submit(queued)).isInstanceOf(BadRequestException.class);
+            queuedGaveUp.countDown();
+        } finally {
+            slowPipeline.stop();
+        }
+
+        // THEN
+        Mockito.verify(reservationBatchService).create(batchCaptor.capture());
+        Assertions.assertThat(batchCaptor.getValue().getReservations()).containsExactly(first);
+    }
+
+    @Test
+    void givenBatchCommittingWhenWaitRunsOutThenReturnCommittedReservation() {
+        // GIVEN
+        BookingPipelineImpl slowPipeline = new BookingPipelineImpl(reservationBatchService, new CampsiteMetrics(meterRegistry), 1, 16, 100, 100);
+        ReservationRequestDTO request = getReservationRequestDTO("test@test.com");
+        Reservation reservation = mapper(request).toReservation();
+
+        // WHEN
+        Mockito.when(reservationBatchService.create(Mockito.any())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return new ReservationBatchResult(BatchMode.PARTIAL, List.of(ReservationBatchResult.Item.created(0, reservation)));
+        });
+        slowPipeline.start();
+        Reservation result;
+        try {
+            result = slowPipeline.submit(request);
+        } finally {
+            slowPipeline.stop();
+        }
+
+        // THEN
+        Assertions.assertThat(result).isSameAs(reservation);
+    }
+
+    private ReservationRequestDTO getReservationRequestDTO(String email) {
+        return new ReservationRequestDTO("test test", email, LocalDate.now().plusDays(1), LocalDate.now().plusDays(2));
+    }
+}
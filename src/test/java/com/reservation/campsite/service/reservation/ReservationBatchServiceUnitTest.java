@@ -0,0 +1,153 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.dto.request.BatchMode;
+import com.reservation.campsite.dto.request.ReservationBatchRequestDTO;
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.reservation.AvailabilityService;
+import com.reservation.campsite.services.reservation.ReservationBatchResult;
+import com.reservation.campsite.services.reservation.ReservationBatchService;
+import com.reservation.campsite.services.validation.ValidateService;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Supplier;
+
+import static com.reservation.campsite.exception.ErrorCode.BAD_REQUEST_BATCH_ABORTED;
+import static com.reservation.campsite.exception.ErrorCode.BAD_REQUEST_BATCH_TOO_LARGE;
+import static com.reservation.campsite.exception.ErrorCode.BAD_REQUEST_RESERVATION_ALREADY_EXISTS;
+import static com.reservation.campsite.exception.ErrorCode.NOT_FOUND_AVAILABILITY_TO_DATE;
+import static com.reservation.campsite.util.TestDataUtils.getAvailabilityDaysByDateRange;
+
+@SpringBootTest
+class ReservationBatchServiceUnitTest {
+
+    @MockBean
+    private AvailabilityService availabilityService;
+
+    @MockBean
+    private ValidateService validateService;
+
+    @MockBean
+    private ReservationRepository reservationRepository;
+
+    @MockBean
+    private LockService lockService;
+
+    @Autowired
+    private ReservationBatchService reservationBatchService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(lockService.lock(Mockito.<Collection<String>>any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        Mockito.when(reservationRepository.insertAll(Mockito.any()))
+                .thenAnswer(invocation -> invocation.<List<Reservation>>getArgument(0));
+    }
+
+    @Test
+    void givenReservationsWhenCreateBatchThenUpdateAvailabilityOnceAndInsertAll() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(2);
+        ReservationBatchRequestDTO batch = getBatch(BatchMode.ALL_OR_NOTHING,
+                getReservationDTO("john@email.com", arrivalDate, departureDate),
+                getReservationDTO("jane@email.com", arrivalDate, departureDate));
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(arrivalDate, departureDate))
+                .thenReturn(getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), 10, 10, null));
+        ReservationBatchResult result = reservationBatchService.create(batch);
+
+        // THEN
+        Assertions.assertThat(result.createdCount()).isEqualTo(2);
+        Mockito.verify(availabilityService).updateAvailability(Map.of(arrivalDate, -2, departureDate, -2));
+        Mockito.verify(reservationRepository).insertAll(Mockito.argThat(reservations -> reservations.size() == 2));
+        Mockito.verify(reservationRepository).findByEmailInAndOverlappingDateRangeNotCancelled(
+                Set.of("john@email.com", "jane@email.com"), arrivalDate, departureDate, arrivalDate.minusDays(3));
+    }
+
+    @Test
+    void givenSoldOutDateWhenCreateBatchAllOrNothingThenNothingIsCreated() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(2);
+        List<AvailabilityDay> availabilities = getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(2), 1, 10, null);
+        ReservationBatchRequestDTO batch = getBatch(BatchMode.ALL_OR_NOTHING,
+                getReservationDTO("john@email.com", arrivalDate, departureDate),
+                getReservationDTO("jane@email.com", departureDate, departureDate.plusDays(1)));
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(Mockito.any(), Mockito.any())).thenReturn(availabilities);
+        ReservationBatchResult result = reservationBatchService.create(batch);
+
+        // THEN
+        Assertions.assertThat(result.createdCount()).isZero();
+        Assertions.assertThat(result.items())
+                .extracting(item -> item.error().getErrorCode())
+                .containsExactly(BAD_REQUEST_BATCH_ABORTED, NOT_FOUND_AVAILABILITY_TO_DATE);
+        Mockito.verify(availabilityService, Mockito.never()).updateAvailability(Mockito.<Map<LocalDate, Integer>>any());
+        Mockito.verify(reservationRepository, Mockito.never()).insertAll(Mockito.any());
+    }
+
+    @Test
+    void givenOverlappingReservationsForSameEmailWhenCreateBatchPartialThenCreateTheFirst() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(3);
+        ReservationBatchRequestDTO batch = getBatch(BatchMode.PARTIAL,
+                getReservationDTO("john@email.com", arrivalDate, departureDate),
+                getReservationDTO("john@email.com", departureDate, departureDate.plusDays(1)));
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(arrivalDate, departureDate))
+                .thenReturn(getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), 10, 10, null));
+        ReservationBatchResult result = reservationBatchService.create(batch);
+
+        // THEN
+        Assertions.assertThat(result.items().get(0).isCreated()).isTrue();
+        Assertions.assertThat(result.items().get(1).error())
+                .hasFieldOrPropertyWithValue("errorCode", BAD_REQUEST_RESERVATION_ALREADY_EXISTS);
+        Mockito.verify(reservationRepository).insertAll(Mockito.argThat(reservations -> reservations.size() == 1));
+    }
+
+    @Test
+    void givenEmptyBatchWhenCreateBatchThenThrowException() {
+        // GIVEN
+        ReservationBatchRequestDTO batch = getBatch(BatchMode.PARTIAL);
+
+        // WHEN
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> reservationBatchService.create(batch))
+                .isInstanceOf(BadRequestException.class)
+                .hasFieldOrPropertyWithValue("errorCode", BAD_REQUEST_BATCH_TOO_LARGE);
+    }
+
+    private ReservationBatchRequestDTO getBatch(BatchMode mode, ReservationRequestDTO... reservations) {
+        return ReservationBatchRequestDTO.builder()
+                .mode(mode)
+                .reservations(List.of(reservations))
+                .build();
+    }
+
+    private ReservationRequestDTO getReservationDTO(String email, LocalDate arrivalDate, LocalDate departureDate) {
+        return ReservationRequestDTO.builder()
+                .name("John Doe")
+                .email(email)
+                .arrivalDate(arrivalDate)
+                .departureDate(departureDate)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package com.reservation.campsite.service.reservation;
+
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.ErrorCode;
+import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.ReservationListingService;
+import com.reservation.campsite.services.reservation.ReservationListingServiceImpl;
+import com.reservation.campsite.services.reservation.ReservationPage;
+import com.reservation.campsite.services.validation.ValidateServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+@SpringBootTest
+class ReservationListingServiceUnitTest {
+
+    @MockBean
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void givenMoreReservationsThanLimitWhenFindArrivalsThenReturnPageAndCursorToTheNextOne() {
+        // GIVEN
+        LocalDate arrivalFrom = LocalDate.now().plusDays(1);
+        LocalDate arrivalTo = arrivalFrom.plusDays(7);
+        Reservation first = getReservation(1L, arrivalFrom);
+        Reservation second = getReservation(2L, arrivalFrom.plusDays(1));
+        Reservation third = getReservation(3L, arrivalFrom.plusDays(1));
+        ReservationListingService reservationListingService = getReservationListingService();
+
+        // WHEN
+        Mockito.when(reservationRepository.findArrivingAfter(arrivalFrom, arrivalTo, arrivalFrom, Long.MIN_VALUE, Limit.of(3)))
+                .thenReturn(List.of(first, second, third));
+        Mockito.when(reservationRepository.findArrivingAfter(arrivalFrom, arrivalTo, second.getArrivalDate(), second.getId(), Limit.of(3)))
+                .thenReturn(List.of(third));
+        ReservationPage firstPage = reservationListingService.findArrivals(arrivalFrom, arrivalTo, null, 2);
+        ReservationPage lastPage = reservationListingService.findArrivals(arrivalFrom, arrivalTo, firstPage.nextCursor(), 2);
+
+        // THEN
+        Assertions.assertThat(firstPage.reservations()).containsExactly(first, second);
+        Assertions.assertThat(firstPage.nextCursor()).isNotBlank();
+        Assertions.assertThat(lastPage.reservations()).containsExactly(third);
+        Assertions.assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void givenMalformedCursorWhenFindArrivalsThenThrowBadRequestException() {
+        // GIVEN
+        LocalDate arrivalFrom = LocalDate.now().plusDays(1);
+        ReservationListingService reservationListingService = getReservationListingService();
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> reservationListingService.findArrivals(arrivalFrom, arrivalFrom.plusDays(7), "not-a-cursor", null))
+                .isInstanceOf(BadRequestException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST_INVALID_CURSOR);
+        Mockito.verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    void givenLimitAboveMaxPageSizeWhenFindArrivalsThenThrowBadRequestException() {
+        // GIVEN
+        LocalDate arrivalFrom = LocalDate.now().plusDays(1);
+        ReservationListingService reservationListingService = getReservationListingService();
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> reservationListingService.findArrivals(arrivalFrom, arrivalFrom.plusDays(7), null, 11))
+                .isInstanceOf(BadRequestException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST_INVALID_PAGE_SIZE);
+        Mockito.verifyNoInteractions(reservationRepository);
+    }
+
+    private ReservationListingService getReservationListingService() {
+        return new ReservationListingServiceImpl(reservationRepository, new ValidateServiceImpl(),
+                new CampsiteMetrics(new SimpleMeterRegistry()), 5, 10);
+    }
+
+    private static Reservation getReservation(Long id, LocalDate arrivalDate) {
+        return Reservation.builder()
+                .id(id)
+                .name("Arrival " + id)
+                .email("arrival" + id + "@test.com")
+                .arrivalDate(arrivalDate)
+                .departureDate(arrivalDate.plusDays(1))
+                .createdDate(Instant.now())
+                .build();
+    }
+}
@@ -3,27 +3,41 @@ package com.reservation.campsite.service.reservation;
 import com.reservation.campsite.dto.request.ReservationRequestDTO;
 import com.reservation.campsite.dto.request.ReservationUpdateDTO;
 import com.reservation.campsite.exception.NotFoundException;
-import com.reservation.campsite.persistence.entity.Availability;
 import com.reservation.campsite.persistence.entity.Reservation;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
+import com.reservation.campsite.persistence.projection.AvailabilityRangeVersion;
 import com.reservation.campsite.persistence.repository.ReservationRepository;
+import com.reservation.campsite.services.cache.AvailabilityCacheService;
+import com.reservation.campsite.services.cache.ReservationCacheService;
+import com.reservation.campsite.services.lock.LockService;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.reservation.AvailabilityIndex;
 import com.reservation.campsite.services.reservation.AvailabilityService;
 import com.reservation.campsite.services.reservation.ReservationService;
 import com.reservation.campsite.services.reservation.ReservationServiceImpl;
+import com.reservation.campsite.services.reservation.TaggedAvailability;
+import com.reservation.campsite.services.retry.RetryServiceImpl;
 import com.reservation.campsite.services.validation.ValidateService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.cache.CacheManager;
 import org.springframework.data.util.Pair;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static com.reservation.campsite.mapper.Mapper.mapper;
-import static com.reservation.campsite.util.TestDataUtils.getAvailabilitiesByDateRange;
+import static com.reservation.campsite.util.TestDataUtils.getAvailabilityDaysByDateRange;
 
 
 @SpringBootTest
@@ -40,6 +54,27 @@ class ReservationServiceUnitTest {
     @MockBean
     private CacheManager cacheManager;
 
+    @MockBean
+    private AvailabilityIndex availabilityIndex;
+
+    @MockBean
+    private AvailabilityCacheService availabilityCacheService;
+
+    @MockBean
+    private ReservationCacheService reservationCacheService;
+
+    @MockBean
+    private LockService lockService;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Mockito.when(lockService.lock(Mockito.<Collection<String>>any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+    }
+
     @Test
     void givenArrivalAndDepartureDatesWhenFindAvailabilityThenAvailabilitiesExpectedByDates() {
         int expectedSize = 31;
@@ -48,10 +83,10 @@ class ReservationServiceUnitTest {
         LocalDate departureDate = LocalDate.now().plusDays(expectedSize);
         Map<LocalDate, Pair<Integer, Integer>> customAvailabilitiesToSet =
                 Map.of(LocalDate.parse(arrivalDate.toString()), Pair.of(0, 10), LocalDate.parse(departureDate.toString()), Pair.of(0, 10));
-        List<Availability> availabilitiesData =
-                getAvailabilitiesByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailable, customAvailabilitiesToSet);
+        List<AvailabilityDay> availabilitiesData =
+                getAvailabilityDaysByDateRange(arrivalDate, departureDate.plusDays(1), expectedAvailable, expectedAvailable, customAvailabilitiesToSet);
         Boolean[] expectedAvailabilities = availabilitiesData.stream()
-                .map(availability -> availability.getAvailable() > 0).toList().toArray(new Boolean[0]);
+                .map(AvailabilityDay::hasAvailability).toList().toArray(new Boolean[0]);
 
         // GIVEN
         ReservationService service = getReservationService();
@@ -68,6 +103,104 @@ class ReservationServiceUnitTest {
                 .containsValues(expectedAvailabilities);
     }
 
+    @Test
+    void givenCachedAvailabilitiesWhenFindAvailabilityThenDatabaseIsNotQueried() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(3);
+        List<LocalDate> dates = arrivalDate.datesUntil(departureDate.plusDays(1)).toList();
+        Map<LocalDate, Integer> cachedAvailabilities = Map.of(dates.get(0), 3, dates.get(1), 0, dates.get(2), 1);
+        ReservationService service = getReservationService();
+
+        // WHEN
+        Mockito.when(availabilityCacheService.getAll(dates)).thenReturn(cachedAvailabilities);
+
+        // THEN
+        Map<LocalDate, Boolean> availabilities = service.findAvailability(arrivalDate, departureDate);
+        Assertions.assertThat(availabilities)
+                .containsExactlyEntriesOf(new TreeMap<>(Map.of(dates.get(0), true, dates.get(1), false, dates.get(2), true)));
+        Mockito.verify(availabilityService, Mockito.never()).findAvailability(Mockito.any(), Mockito.any());
+        Mockito.verify(availabilityCacheService, Mockito.never()).putAll(Mockito.any());
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.RESERVATION_OPERATION)
+                        .tag("operation", "findAvailability")
+                        .tag("outcome", "success")
+                        .timer()
+                        .count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givenIndexedRangeWhenFindTaggedAvailabilityThenTagChangesOnlyWithVersion() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(3);
+        Map<LocalDate, Boolean> availability = Map.of(arrivalDate, true, arrivalDate.plusDays(1), false, departureDate, true);
+        Supplier<Map<LocalDate, Boolean>> supplier = () -> availability;
+        ReservationService service = getReservationService();
+
+        // WHEN
+        Mockito.when(availabilityIndex.findVersionedAvailability(arrivalDate, departureDate))
+                .thenReturn(Optional.of(new AvailabilityIndex.VersionedAvailability(new AvailabilityRangeVersion(3, 5), supplier)),
+                        Optional.of(new AvailabilityIndex.VersionedAvailability(new AvailabilityRangeVersion(3, 5), supplier)),
+                        Optional.of(new AvailabilityIndex.VersionedAvailability(new AvailabilityRangeVersion(3, 6), supplier)));
+        TaggedAvailability tagged = service.findTaggedAvailability(arrivalDate, departureDate);
+
+        // THEN
+        Assertions.assertThat(tagged.availability()).isSameAs(supplier);
+        Assertions.assertThat(tagged.eTag()).startsWith("W/\"").endsWith("\"");
+        Assertions.assertThat(service.findTaggedAvailability(arrivalDate, departureDate).eTag()).isEqualTo(tagged.eTag());
+        Assertions.assertThat(service.findTaggedAvailability(arrivalDate, departureDate).eTag()).isNotEqualTo(tagged.eTag());
+        Mockito.verifyNoInteractions(availabilityService);
+        Mockito.verifyNoInteractions(availabilityCacheService);
+    }
+
+    @Test
+    void givenRangeOutsideIndexWhenFindTaggedAvailabilityThenServeFromCacheWithoutTag() {
+        // GIVEN
+        LocalDate arrivalDate = LocalDate.now().plusDays(1);
+        LocalDate departureDate = LocalDate.now().plusDays(2);
+        List<LocalDate> dates = List.of(arrivalDate, departureDate);
+        ReservationService service = getReservationService();
+
+        // WHEN
+        Mockito.when(availabilityIndex.findVersionedAvailability(arrivalDate, departureDate)).thenReturn(Optional.empty());
+        Mockito.when(availabilityCacheService.getAll(dates)).thenReturn(Map.of(arrivalDate, 0, departureDate, 4));
+        TaggedAvailability tagged = service.findTaggedAvailability(arrivalDate, departureDate);
+
+        // THEN
+        Assertions.assertThat(tagged.eTag()).isNull();
+        Assertions.assertThat(tagged.availability().get())
+                .containsExactlyEntriesOf(new TreeMap<>(Map.of(arrivalDate, false, departureDate, true)));
+        Mockito.verifyNoInteractions(availabilityService);
+    }
+
+    @Test
+    void givenAvailabilityPagesWithGapsWhenStreamAvailabilityThenEveryDateInOrder() {
+        // GIVEN
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(4);
+        ReservationService service = getReservationService();
+        ReflectionTestUtils.setField(service, "availabilityStreamPageSize", 2);
+        Map<LocalDate, Boolean> streamed = new LinkedHashMap<>();
+
+        // WHEN
+        Mockito.when(availabilityService.findAvailability(from, to, 2)).thenReturn(List.of(
+                new AvailabilityDay(from, 1, 0),
+                new AvailabilityDay(from.plusDays(1), 0, 0)));
+        Mockito.when(availabilityService.findAvailability(from.plusDays(2), to, 2)).thenReturn(List.of(
+                new AvailabilityDay(from.plusDays(3), 5, 0)));
+        service.streamAvailability(mapper(from, to).toDateRange(), streamed::put);
+
+        // THEN
+        Assertions.assertThat(streamed).containsExactly(
+                Map.entry(from, true),
+                Map.entry(from.plusDays(1), false),
+                Map.entry(from.plusDays(2), false),
+                Map.entry(from.plusDays(3), true),
+                Map.entry(to, false));
+        Mockito.verify(availabilityService, Mockito.times(2)).findAvailability(Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
     @Test
     void givenReservationDTOWhenCreateReservationThenSaveReservation() {
         // GIVEN
@@ -81,7 +214,7 @@ class ReservationServiceUnitTest {
         Reservation reservationToSave = getReservation(reservationDTO);
 
         // WHEN
-        Mockito.when(reservationRepository.findByEmailAndBetweenDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any()))
+        Mockito.when(reservationRepository.findByEmailAndOverlappingDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(List.of());
         Mockito.when(cacheManager.getCache(Mockito.anyString())).thenReturn(null);
         Mockito.when(reservationRepository.save(Mockito.any())).thenReturn(reservationToSave);
@@ -98,6 +231,48 @@ class ReservationServiceUnitTest {
 
     }
 
+    @Test
+    void givenReservationIdWhenFindReservationThenReturnReservation() {
+        // GIVEN
+        Long reservationId = 1L;
+        ReservationService service = getReservationService();
+        Reservation reservation = getDefaultReservation();
+        reservation.setId(reservationId);
+
+        // WHEN
+        Mockito.when(reservationRepository.findById(reservationId)).thenReturn(Optional.of(reservation));
+
+        // THEN
+        Assertions.assertThat(service.findReservation(reservationId)).isSameAs(reservation);
+    }
+
+    @Test
+    void givenReservationIdNotFoundWhenFindReservationThenThrowException() {
+        // GIVEN
+        ReservationService service = getReservationService();
+
+        // WHEN
+        Mockito.when(reservationRepository.findById(Mockito.anyLong())).thenReturn(Optional.empty());
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> service.findReservation(1L))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    void givenEmailWhenFindReservationsByEmailThenReturnReservationsOfEmail() {
+        // GIVEN
+        ReservationService service = getReservationService();
+        Reservation reservation = getDefaultReservation();
+
+        // WHEN
+        Mockito.when(reservationRepository.findByEmailOrderByArrivalDate(reservation.getEmail())).thenReturn(List.of(reservation));
+
+        // THEN
+        Assertions.assertThat(service.findReservationsByEmail(reservation.getEmail())).containsExactly(reservation);
+        Mockito.verify(validateService).validateEmail(Mockito.eq(reservation.getEmail()), Mockito.anyString());
+    }
+
     @Test
     void givenReservationIdWhenCancelReservationThenCancelReservation() {
         // GIVEN
@@ -112,7 +287,7 @@ class ReservationServiceUnitTest {
         // THEN
         Assertions.assertThatCode(() -> service.cancel(reservationId))
                 .doesNotThrowAnyException();
-
+        Mockito.verify(reservationCacheService).evictAfterCommit(reservationId);
     }
 
     @Test
@@ -129,6 +304,12 @@ class ReservationServiceUnitTest {
         // THEN
         Assertions.assertThatThrownBy(() -> service.cancel(reservationId))
                 .isInstanceOf(NotFoundException.class);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.RESERVATION_REJECTED)
+                        .tag("operation", "cancel")
+                        .tag("code", "NOT_FOUND_RESERVATION_ID")
+                        .counter()
+                        .count())
+                .isEqualTo(1);
 
     }
 
@@ -141,7 +322,7 @@ class ReservationServiceUnitTest {
 
         // WHEN
         Mockito.when(reservationRepository.findById(Mockito.any())).thenReturn(Optional.of(getDefaultReservation()));
-        Mockito.when(reservationRepository.findByEmailAndBetweenDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any()))
+        Mockito.when(reservationRepository.findByEmailAndOverlappingDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(List.of());
 
         // THEN
@@ -158,7 +339,7 @@ class ReservationServiceUnitTest {
 
         // WHEN
         Mockito.when(reservationRepository.findById(Mockito.any())).thenReturn(Optional.empty());
-        Mockito.when(reservationRepository.findByEmailAndBetweenDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any()))
+        Mockito.when(reservationRepository.findByEmailAndOverlappingDateRangeNotCancelled(Mockito.anyString(), Mockito.any(), Mockito.any(), Mockito.any()))
                 .thenReturn(List.of());
 
         // THEN
@@ -180,7 +361,8 @@ class ReservationServiceUnitTest {
     }
 
     private ReservationService getReservationService() {
-        return new ReservationServiceImpl(availabilityService, validateService, reservationRepository, cacheManager);
+        return new ReservationServiceImpl(availabilityService, validateService, reservationRepository, cacheManager, availabilityIndex, availabilityCacheService,
+                reservationCacheService, lockService, new RetryServiceImpl(new CampsiteMetrics(meterRegistry), 1, 0, 0), Optional.empty(), Mockito.mock(PlatformTransactionManager.class), new CampsiteMetrics(meterRegistry));
     }
 
     private Reservation getReservation(ReservationRequestDTO reservationDTO) {
@@ -0,0 +1,75 @@
+package com.reservation.campsite.service.retry;
+
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.ConflictException;
+import com.reservation.campsite.exception.ErrorCode;
+import com.reservation.campsite.services.metrics.CampsiteMetrics;
+import com.reservation.campsite.services.retry.RetryServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+@SpringBootTest
+class RetryServiceUnitTest {
+
+    private static final String OPERATION = "create";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RetryServiceImpl retryService = new RetryServiceImpl(new CampsiteMetrics(meterRegistry), 3, 1, 5);
+
+    @Test
+    void givenConflictThenSuccessWhenRetryOnConflictThenReturnResultOfNextAttempt() {
+        // GIVEN
+        AtomicInteger attempts = new AtomicInteger();
+
+        // WHEN
+        String result = retryService.retryOnConflict(OPERATION, () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException("Availability", 1L);
+            }
+            return "reserved";
+        });
+
+        // THEN
+        Assertions.assertThat(result).isEqualTo("reserved");
+        Assertions.assertThat(attempts).hasValue(2);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.OPTIMISTIC_LOCK_RETRIES).tag("operation", OPERATION).counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void givenConflictOnEveryAttemptWhenRetryOnConflictThenThrowConflictException() {
+        // GIVEN
+        AtomicInteger attempts = new AtomicInteger();
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> retryService.retryOnConflict(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw new ObjectOptimisticLockingFailureException("Availability", 1L);
+                }))
+                .isInstanceOf(ConflictException.class)
+                .extracting("errorCode").isEqualTo(ErrorCode.CONFLICT_CONCURRENT_MODIFICATION);
+        Assertions.assertThat(attempts).hasValue(3);
+        Assertions.assertThat(meterRegistry.get(CampsiteMetrics.OPTIMISTIC_LOCK_EXHAUSTED).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void givenBusinessErrorWhenRetryOnConflictThenDoNotRetry() {
+        // GIVEN
+        AtomicInteger attempts = new AtomicInteger();
+
+        // THEN
+        Assertions.assertThatThrownBy(() -> retryService.retryOnConflict(OPERATION, () -> {
+                    attempts.incrementAndGet();
+                    throw BadRequestException.lock();
+                }))
+                .isInstanceOf(BadRequestException.class);
+        Assertions.assertThat(attempts).hasValue(1);
+    }
+}
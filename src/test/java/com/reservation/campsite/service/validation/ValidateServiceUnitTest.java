@@ -0,0 +1,76 @@
+package com.reservation.campsite.service.validation;
+
+import com.reservation.campsite.dto.request.ReservationRequestDTO;
+import com.reservation.campsite.exception.BadRequestException;
+import com.reservation.campsite.exception.ErrorCode;
+import com.reservation.campsite.services.validation.ValidateService;
+import com.reservation.campsite.services.validation.ValidateServiceImpl;
+import com.reservation.campsite.util.RangeDate;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+
+@SpringBootTest
+class ValidateServiceUnitTest {
+
+    private final ValidateService validateService = new ValidateServiceImpl();
+
+    @Test
+    void givenAheadDaysWhenGetValidArrivalDateRangeThenRangeStartsAndEndsFromToday() {
+        // GIVEN
+        LocalDate today = LocalDate.now();
+
+        // WHEN
+        RangeDate<LocalDate> range = validateService.getValidArrivalDateRange(1, 30);
+
+        // THEN
+        Assertions.assertThat(range.getFrom()).isEqualTo(today.plusDays(1));
+        Assertions.assertThat(range.getTo()).isEqualTo(today.plusDays(30));
+    }
+
+    @Test
+    void givenValidRequestWhenValidateReservationRequestThenDoNotThrow() {
+        // GIVEN
+        RangeDate<LocalDate> range = validateService.getValidArrivalDateRange(1, 30);
+        ReservationRequestDTO request = getReservationDTO("john@email.com", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+        // WHEN / THEN
+        Assertions.assertThatCode(() -> validateService.validateReservationRequest(request, 1, 3, range))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void givenInvalidEmailWhenValidateReservationRequestThenThrowInvalidEmail() {
+        // GIVEN
+        RangeDate<LocalDate> range = validateService.getValidArrivalDateRange(1, 30);
+        ReservationRequestDTO request = getReservationDTO("john@email", LocalDate.now().plusDays(1), LocalDate.now().plusDays(3));
+
+        // WHEN / THEN
+        Assertions.assertThatThrownBy(() -> validateService.validateReservationRequest(request, 1, 3, range))
+                .isInstanceOf(BadRequestException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST_INVALID_EMAIL);
+    }
+
+    @Test
+    void givenStayOutsideValidRangeWhenValidateStayThenThrowInvalidDateRange() {
+        // GIVEN
+        RangeDate<LocalDate> range = validateService.getValidArrivalDateRange(1, 30);
+        LocalDate arrivalDate = LocalDate.now().plusDays(29);
+
+        // WHEN / THEN
+        Assertions.assertThatThrownBy(() -> validateService.validateStay(arrivalDate, arrivalDate.plusDays(2), 1, 3, range))
+                .isInstanceOf(BadRequestException.class)
+                .hasFieldOrPropertyWithValue("errorCode", ErrorCode.BAD_REQUEST_INVALID_DATE_RANGE);
+    }
+
+    private static ReservationRequestDTO getReservationDTO(String email, LocalDate arrivalDate, LocalDate departureDate) {
+        return ReservationRequestDTO.builder()
+                .name("John Doe")
+                .email(email)
+                .arrivalDate(arrivalDate)
+                .departureDate(departureDate)
+                .build();
+    }
+}
@@ -1,6 +1,7 @@
 package com.reservation.campsite.util;
 
 import com.reservation.campsite.persistence.entity.Availability;
+import com.reservation.campsite.persistence.projection.AvailabilityDay;
 import org.springframework.data.util.Pair;
 
 import java.time.LocalDate;
@@ -30,4 +31,16 @@ public class TestDataUtils {
         });
         return availabilities;
     }
+
+    public static List<AvailabilityDay> getAvailabilityDaysByDateRange(
+            LocalDate arrivalDate,
+            LocalDate departureDate,
+            int available,
+            int availableTotal,
+            Map<LocalDate, Pair<Integer, Integer>> customAvailabilities) {
+
+        return getAvailabilitiesByDateRange(arrivalDate, departureDate, available, availableTotal, customAvailabilities).stream()
+                .map(availability -> new AvailabilityDay(availability.getDate(), availability.getAvailable(), 0))
+                .toList();
+    }
 }